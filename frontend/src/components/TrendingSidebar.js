@@ -17,9 +17,31 @@ const TrendingSidebar = () => {
     loadTrendingArticles();
   }, [selectedCategory]);
 
+  // Refetch when the server announces a new version of this category instead of polling
+  useEffect(() => {
+    if (typeof EventSource === 'undefined') {
+      return undefined;
+    }
+    const API_BASE_URL = process.env.REACT_APP_API_URL || 'http://localhost:8080';
+    const source = new EventSource(`${API_BASE_URL}/api/trending/subscribe?categories=${selectedCategory}`);
+    source.addEventListener('version', (event) => {
+      try {
+        const { version } = JSON.parse(event.data);
+        const knownVersion = localStorage.getItem(getCacheVersionKey(selectedCategory));
+        if (knownVersion !== null && knownVersion !== String(version)) {
+          fetchTrendingArticles();
+        }
+      } catch (err) {
+        console.error('Error handling trending update:', err);
+      }
+    });
+    return () => source.close();
+  }, [selectedCategory]);
+
   // Cache key for localStorage
   const getCacheKey = (category) => `trending_articles_${category}`;
   const getCacheTimestampKey = (category) => `trending_articles_timestamp_${category}`;
+  const getCacheVersionKey = (category) => `trending_articles_version_${category}`;
 
   // Load articles from cache or fetch from API
   const loadTrendingArticles = async () => {
@@ -75,6 +97,9 @@ const TrendingSidebar = () => {
         const timestampKey = getCacheTimestampKey(selectedCategory);
         localStorage.setItem(cacheKey, JSON.stringify(data.articles));
         localStorage.setItem(timestampKey, Date.now().toString());
+        if (data.version !== undefined) {
+          localStorage.setItem(getCacheVersionKey(selectedCategory), String(data.version));
+        }
         setIsCached(false);
       } else {
         setError(data.message);
@@ -93,6 +118,7 @@ const TrendingSidebar = () => {
     const timestampKey = getCacheTimestampKey(selectedCategory);
     localStorage.removeItem(cacheKey);
     localStorage.removeItem(timestampKey);
+    localStorage.removeItem(getCacheVersionKey(selectedCategory));
     
     // Fetch fresh data
     await fetchTrendingArticles();
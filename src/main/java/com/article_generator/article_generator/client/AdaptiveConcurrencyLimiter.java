@@ -0,0 +1,191 @@
+package com.article_generator.article_generator.client;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * AIMD concurrency limiter for outbound calls. The allowed concurrency grows
+ * by roughly one per round of successful calls and is cut multiplicatively
+ * whenever a call signals overload (429, 5xx, timeout or a latency above the
+ * configured ceiling). Calls beyond the limit wait in a bounded FIFO queue;
+ * when that is full they are rejected with GeminiOverloadedException.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Outcome { SUCCESS, DROPPED, IGNORED }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final double backoffRatio;
+    private final Duration latencyCeiling;
+    private final Duration maxWait;
+
+    private double limit;
+    private int inFlight;
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private long rejections;
+    private long drops;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueue,
+                                      double backoffRatio, Duration latencyCeiling, Duration maxWait) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.backoffRatio = backoffRatio;
+        this.latencyCeiling = latencyCeiling;
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Runs the call once a slot is free. The classifier decides which errors
+     * count as overload; anything it maps to IGNORED leaves the limit alone.
+     */
+    public <T> Mono<T> limit(Supplier<Mono<T>> call, Function<Throwable, Outcome> classifier) {
+        return acquire().flatMap(permit -> call.get()
+            .doOnSuccess(value -> permit.release(Outcome.SUCCESS))
+            .doOnError(e -> permit.release(classifier.apply(e)))
+            .doOnCancel(() -> permit.release(Outcome.IGNORED)));
+    }
+
+    public <T> Flux<T> limitMany(Supplier<Flux<T>> call, Function<Throwable, Outcome> classifier) {
+        return acquire().flatMapMany(permit -> call.get()
+            .doOnComplete(() -> permit.release(Outcome.SUCCESS))
+            .doOnError(e -> permit.release(classifier.apply(e)))
+            .doOnCancel(() -> permit.release(Outcome.IGNORED)));
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        return Map.of(
+            "limit", (int) limit,
+            "inFlight", inFlight,
+            "queueDepth", waiters.size(),
+            "maxQueue", maxQueue,
+            "rejections", rejections,
+            "drops", drops
+        );
+    }
+
+    private Mono<Permit> acquire() {
+        Mono<Permit> acquire = Mono.create(sink -> {
+            Permit granted = null;
+            boolean rejected = false;
+            synchronized (this) {
+                if (inFlight < (int) limit) {
+                    inFlight++;
+                    granted = new Permit();
+                } else if (waiters.size() >= maxQueue) {
+                    rejections++;
+                    rejected = true;
+                } else {
+                    Waiter waiter = new Waiter(sink);
+                    waiters.addLast(waiter);
+                    sink.onCancel(waiter::cancel);
+                }
+            }
+            // Signal outside the lock; subscribers start the HTTP call synchronously
+            if (granted != null) {
+                sink.success(granted);
+            } else if (rejected) {
+                sink.error(new GeminiOverloadedException("Gemini concurrency limit reached and wait queue is full"));
+            }
+        });
+
+        return acquire
+            .timeout(maxWait)
+            .onErrorMap(TimeoutException.class, e -> {
+                synchronized (this) {
+                    rejections++;
+                }
+                return new GeminiOverloadedException("Timed out waiting for a Gemini concurrency slot");
+            });
+    }
+
+    private void onRelease(Outcome outcome, long latencyNanos) {
+        List<Waiter> toGrant = new ArrayList<>();
+        synchronized (this) {
+            int inFlightBefore = inFlight;
+            inFlight--;
+
+            if (outcome == Outcome.SUCCESS && latencyNanos > latencyCeiling.toNanos()) {
+                outcome = Outcome.DROPPED;
+            }
+            if (outcome == Outcome.DROPPED) {
+                drops++;
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (outcome == Outcome.SUCCESS && inFlightBefore * 2 >= limit) {
+                // Only grow when the current limit is actually being used
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+
+            while (inFlight < (int) limit && !waiters.isEmpty()) {
+                Waiter waiter = waiters.pollFirst();
+                inFlight++;
+                toGrant.add(waiter);
+            }
+        }
+        for (Waiter waiter : toGrant) {
+            waiter.grant();
+        }
+    }
+
+    private final class Permit {
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release(Outcome outcome) {
+            if (released.compareAndSet(false, true)) {
+                onRelease(outcome, System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    private final class Waiter {
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int CANCELLED = 2;
+
+        private final MonoSink<Permit> sink;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private volatile Permit permit;
+
+        Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+
+        void grant() {
+            Permit granted = new Permit();
+            permit = granted;
+            if (state.compareAndSet(WAITING, GRANTED)) {
+                sink.success(granted);
+            } else {
+                granted.release(Outcome.IGNORED);
+            }
+        }
+
+        void cancel() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                synchronized (AdaptiveConcurrencyLimiter.this) {
+                    waiters.remove(this);
+                }
+            } else if (permit != null) {
+                // Cancelled right after being granted; hand the slot back (release is idempotent)
+                permit.release(Outcome.IGNORED);
+            }
+        }
+    }
+}
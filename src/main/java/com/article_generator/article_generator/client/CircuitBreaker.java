@@ -0,0 +1,199 @@
+package com.article_generator.article_generator.client;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Count-based circuit breaker. While CLOSED it tracks the outcome of the
+ * last N calls and opens once the failure rate crosses the threshold. OPEN
+ * rejects calls for a cool-down period, then HALF_OPEN lets a few probe
+ * calls through: if they all succeed the breaker closes, any failure
+ * re-opens it.
+ *
+ * Every admitted call holds a Permit stamped with the breaker's generation,
+ * which advances on each state change. Outcomes reported through a permit
+ * from an older generation are ignored: a call admitted while CLOSED that
+ * finishes after the breaker opened says nothing about the probes.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final Duration openDuration;
+    private final int halfOpenProbes;
+
+    // Ring buffer of recent outcomes while CLOSED; true = failure
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAtNanos;
+    private int probesInFlight;
+    private int probeSuccesses;
+    private long rejectedCalls;
+    private long timesOpened;
+
+    public CircuitBreaker(int failureRateThreshold, int slidingWindowSize, int minimumCalls,
+                          Duration openDuration, int halfOpenProbes) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[slidingWindowSize];
+        this.minimumCalls = minimumCalls;
+        this.openDuration = openDuration;
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    /**
+     * Returns a permit when a call may proceed, empty when it is rejected.
+     * Every permit must be completed with exactly one of onSuccess,
+     * onFailure or onIgnored; later calls on the same permit are no-ops.
+     */
+    public synchronized Optional<Permit> tryAcquirePermission() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openDuration.toNanos()) {
+            transitionTo(State.HALF_OPEN);
+            probesInFlight = 0;
+            probeSuccesses = 0;
+        }
+        switch (state) {
+            case CLOSED:
+                return Optional.of(new Permit(generation, false));
+            case HALF_OPEN:
+                if (probesInFlight + probeSuccesses < halfOpenProbes) {
+                    probesInFlight++;
+                    return Optional.of(new Permit(generation, true));
+                }
+                break;
+            default:
+                break;
+        }
+        rejectedCalls++;
+        return Optional.empty();
+    }
+
+    private synchronized void onSuccess(Permit permit) {
+        if (permit.generation != generation) {
+            return;
+        }
+        if (permit.probe) {
+            probesInFlight--;
+            probeSuccesses++;
+            if (probeSuccesses >= halfOpenProbes) {
+                close();
+            }
+        } else {
+            record(false);
+        }
+    }
+
+    private synchronized void onFailure(Permit permit) {
+        if (permit.generation != generation) {
+            return;
+        }
+        if (permit.probe) {
+            open();
+        } else {
+            record(true);
+            if (windowCount >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCount) {
+                open();
+            }
+        }
+    }
+
+    private synchronized void onIgnored(Permit permit) {
+        if (permit.generation == generation && permit.probe) {
+            probesInFlight--;
+        }
+    }
+
+    public synchronized Duration remainingOpenTime() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        long remaining = openDuration.toNanos() - (System.nanoTime() - openedAtNanos);
+        return Duration.ofNanos(Math.max(0, remaining));
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        return Map.of(
+            "state", state.name(),
+            "failureRate", windowCount == 0 ? 0 : windowFailures * 100 / windowCount,
+            "bufferedCalls", windowCount,
+            "rejectedCalls", rejectedCalls,
+            "timesOpened", timesOpened
+        );
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open() {
+        transitionTo(State.OPEN);
+        openedAtNanos = System.nanoTime();
+        timesOpened++;
+    }
+
+    private void close() {
+        transitionTo(State.CLOSED);
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    private void transitionTo(State next) {
+        state = next;
+        generation++;
+    }
+
+    /** Admission of one call, tied to the breaker state it was admitted under. */
+    public final class Permit {
+        private final long generation;
+        private final boolean probe;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Permit(long generation, boolean probe) {
+            this.generation = generation;
+            this.probe = probe;
+        }
+
+        public void onSuccess() {
+            if (completed.compareAndSet(false, true)) {
+                CircuitBreaker.this.onSuccess(this);
+            }
+        }
+
+        public void onFailure() {
+            if (completed.compareAndSet(false, true)) {
+                CircuitBreaker.this.onFailure(this);
+            }
+        }
+
+        /** The call ended without telling us anything about provider health (cancelled, bad request, ...). */
+        public void onIgnored() {
+            if (completed.compareAndSet(false, true)) {
+                CircuitBreaker.this.onIgnored(this);
+            }
+        }
+    }
+}
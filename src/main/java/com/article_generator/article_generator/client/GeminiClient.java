@@ -0,0 +1,381 @@
+package com.article_generator.article_generator.client;
+
+import com.article_generator.article_generator.dto.ArticleResponse;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Single entry point for Gemini calls. All requests share one pooled,
+ * non-blocking WebClient (see GeminiClientConfig), so no caller holds a
+ * thread while the model is generating.
+ *
+ * Each attempt passes a circuit breaker (fail fast while the provider is
+ * down) and an adaptive concurrency limiter (do not bury a slow provider).
+ * Transient failures are retried with jittered exponential backoff that
+ * honours Retry-After, and slow non-streaming calls can optionally be hedged
+ * with a second request once they exceed the observed latency percentile.
+ */
+@Component
+public class GeminiClient {
+
+    private final WebClient webClient;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final CircuitBreaker circuitBreaker;
+    private final LatencyTracker latencyTracker = new LatencyTracker(200, 20);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectReader articleReader = objectMapper.readerFor(ArticleResponse.class)
+        .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedgedRequests = new LongAdder();
+    private final LongAdder promptTokens = new LongAdder();
+    private final LongAdder outputTokens = new LongAdder();
+
+    @Value("${spring.ai.google.ai.api-key}")
+    private String apiKey;
+
+    @Value("${spring.ai.google.ai.model}")
+    private String modelName;
+
+    // Ask for schema-constrained JSON instead of parsing JSON out of free text
+    @Value("${app.gemini.json-mode:true}")
+    private boolean jsonMode;
+
+    @Value("${app.gemini.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.gemini.retry.initial-backoff-ms:500}")
+    private long initialBackoffMs;
+
+    @Value("${app.gemini.retry.max-backoff-ms:8000}")
+    private long maxBackoffMs;
+
+    // A Retry-After longer than this is not worth holding the request for
+    @Value("${app.gemini.retry.max-retry-after-seconds:20}")
+    private long maxRetryAfterSeconds;
+
+    @Value("${app.gemini.hedging.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${app.gemini.hedging.percentile:0.95}")
+    private double hedgingPercentile;
+
+    public GeminiClient(@Qualifier("geminiWebClient") WebClient webClient,
+                        AdaptiveConcurrencyLimiter geminiConcurrencyLimiter,
+                        CircuitBreaker geminiCircuitBreaker) {
+        this.webClient = webClient;
+        this.limiter = geminiConcurrencyLimiter;
+        this.circuitBreaker = geminiCircuitBreaker;
+    }
+
+    /**
+     * Generates one article for the prompt. In JSON mode the model is
+     * constrained to the {title, subtitle, content} schema and the answer
+     * binds straight into ArticleResponse; completes empty when the answer
+     * is missing or incomplete.
+     */
+    public Mono<ArticleResponse> generateArticle(String prompt, int maxOutputTokens) {
+        return generateContent(GeminiRequest.article(prompt, jsonMode, maxOutputTokens))
+            .mapNotNull(this::parseArticle);
+    }
+
+    /**
+     * Streams the raw JSON text of one article as deltas while the model is
+     * still producing it.
+     */
+    public Flux<String> streamArticle(String prompt, int maxOutputTokens) {
+        return streamGenerateContent(GeminiRequest.article(prompt, jsonMode, maxOutputTokens));
+    }
+
+    private Mono<String> generateContent(GeminiRequest body) {
+        // Raw bytes go straight to the streaming parser; no intermediate tree or map is built
+        Supplier<Mono<byte[]>> request = () -> webClient.post()
+            .uri("/models/{model}:generateContent?key={key}", modelName, apiKey)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(body)
+            .retrieve()
+            .bodyToMono(byte[].class);
+
+        return Mono.defer(() -> hedge(() -> attempt(request)))
+            .retryWhen(retrySpec(error -> true))
+            .mapNotNull(this::parseResponse)
+            .doOnNext(this::recordResponse)
+            .mapNotNull(GeminiResponse::text);
+    }
+
+    // Failures are only retried before the first delta, since replaying a half-delivered stream would duplicate text
+    private Flux<String> streamGenerateContent(GeminiRequest body) {
+        Supplier<Flux<ServerSentEvent<String>>> request = () -> webClient.post()
+            .uri("/models/{model}:streamGenerateContent?alt=sse&key={key}", modelName, apiKey)
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .bodyValue(body)
+            .retrieve()
+            .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {});
+
+        return Flux.defer(() -> {
+                AtomicBoolean emitted = new AtomicBoolean();
+                return attemptMany(request)
+                    .doOnNext(event -> emitted.set(true))
+                    .retryWhen(retrySpec(error -> !emitted.get()));
+            })
+            .mapNotNull(ServerSentEvent::data)
+            .mapNotNull(this::parseStreamedEvent)
+            .doOnNext(this::recordResponse)
+            .mapNotNull(GeminiResponse::text);
+    }
+
+    /** Fails fast while the circuit is open, so callers can skip work that would be rejected anyway. */
+    public void ensureAvailable() {
+        if (circuitBreaker.getState() == CircuitBreaker.State.OPEN && !circuitBreaker.remainingOpenTime().isZero()) {
+            throw unavailable();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+            "limiter", limiter.getStats(),
+            "circuitBreaker", circuitBreaker.getStats(),
+            "retries", retries.sum(),
+            "hedgedRequests", hedgedRequests.sum(),
+            "promptTokens", promptTokens.sum(),
+            "outputTokens", outputTokens.sum(),
+            "p95LatencyMs", latencyTracker.percentile(0.95).map(Duration::toMillis).orElse(-1L)
+        );
+    }
+
+    private <T> Mono<T> attempt(Supplier<Mono<T>> request) {
+        return Mono.defer(() -> {
+            Optional<CircuitBreaker.Permit> permit = circuitBreaker.tryAcquirePermission();
+            if (permit.isEmpty()) {
+                return Mono.error(unavailable());
+            }
+            long startNanos = System.nanoTime();
+            return limiter.limit(request, GeminiClient::classify)
+                .doOnSuccess(value -> {
+                    permit.get().onSuccess();
+                    latencyTracker.record(Duration.ofNanos(System.nanoTime() - startNanos));
+                })
+                .doOnError(error -> recordFailure(permit.get(), error))
+                .doOnCancel(permit.get()::onIgnored);
+        });
+    }
+
+    private <T> Flux<T> attemptMany(Supplier<Flux<T>> request) {
+        return Flux.defer(() -> {
+            Optional<CircuitBreaker.Permit> permit = circuitBreaker.tryAcquirePermission();
+            if (permit.isEmpty()) {
+                return Flux.error(unavailable());
+            }
+            return limiter.limitMany(request, GeminiClient::classify)
+                .doOnComplete(permit.get()::onSuccess)
+                .doOnError(error -> recordFailure(permit.get(), error))
+                .doOnCancel(permit.get()::onIgnored);
+        });
+    }
+
+    /**
+     * Races a second attempt against the first once the first has been
+     * running longer than the tracked latency percentile. The loser is
+     * cancelled. Without enough samples yet, no hedge is sent.
+     */
+    private <T> Mono<T> hedge(Supplier<Mono<T>> attempt) {
+        Optional<Duration> hedgeDelay = hedgingEnabled ? latencyTracker.percentile(hedgingPercentile) : Optional.empty();
+        if (hedgeDelay.isEmpty()) {
+            return attempt.get();
+        }
+
+        // If the primary fails before the hedge delay, let the error through instead of hedging a broken call
+        Sinks.Empty<Void> primaryFailed = Sinks.empty();
+        Mono<T> primary = attempt.get().doOnError(primaryFailed::tryEmitError);
+        Mono<T> secondary = Mono.firstWithSignal(Mono.delay(hedgeDelay.get()).then(), primaryFailed.asMono())
+            .then(Mono.defer(() -> {
+                hedgedRequests.increment();
+                return attempt.get();
+            }));
+
+        return Mono.firstWithValue(primary, secondary)
+            .onErrorMap(NoSuchElementException.class, e -> e.getSuppressed().length > 0 ? e.getSuppressed()[0] : e);
+    }
+
+    private Retry retrySpec(Predicate<Throwable> retryAllowed) {
+        return Retry.from(signals -> signals.concatMap(signal -> {
+            Throwable error = signal.failure();
+            long attempt = signal.totalRetries();
+            if (attempt + 1 >= maxAttempts || !isRetryable(error) || !retryAllowed.test(error)) {
+                return Mono.error(error);
+            }
+
+            // Full jitter: a random delay up to the exponential cap spreads out synchronized retries
+            long cap = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt, 20));
+            Duration delay = Duration.ofMillis(ThreadLocalRandom.current().nextLong(cap + 1));
+
+            Optional<Duration> retryAfter = retryAfter(error);
+            if (retryAfter.isPresent()) {
+                if (retryAfter.get().getSeconds() > maxRetryAfterSeconds) {
+                    return Mono.error(error);
+                }
+                if (retryAfter.get().compareTo(delay) > 0) {
+                    delay = retryAfter.get();
+                }
+            }
+
+            retries.increment();
+            System.out.println("Retrying Gemini call (attempt " + (attempt + 2) + ") in " + delay.toMillis() + "ms after: " + error.getMessage());
+            return Mono.delay(delay);
+        }));
+    }
+
+    private void recordFailure(CircuitBreaker.Permit permit, Throwable error) {
+        if (isProviderFailure(error)) {
+            permit.onFailure();
+        } else {
+            permit.onIgnored();
+        }
+    }
+
+    private GeminiUnavailableException unavailable() {
+        return new GeminiUnavailableException("Gemini is temporarily unavailable", circuitBreaker.remainingOpenTime());
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof GeminiUnavailableException || error instanceof GeminiOverloadedException) {
+            return false;
+        }
+        if (error instanceof WebClientRequestException) {
+            // Connection refused/reset or read timeout before a response arrived
+            return true;
+        }
+        return classify(error) == AdaptiveConcurrencyLimiter.Outcome.DROPPED;
+    }
+
+    private static Optional<Duration> retryAfter(Throwable error) {
+        if (!(error instanceof WebClientResponseException response)) {
+            return Optional.empty();
+        }
+        String header = response.getHeaders().getFirst("Retry-After");
+        if (header == null || header.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Duration.ofSeconds(Long.parseLong(header.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(header.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration until = Duration.between(ZonedDateTime.now(at.getZone()), at);
+                return Optional.of(until.isNegative() ? Duration.ZERO : until);
+            } catch (Exception ignored) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    // Besides overload and timeouts, not reaching the provider at all (connection refused, connect timeout,
+    // DNS or TLS failure) is exactly the outage the breaker should fail fast on
+    private static boolean isProviderFailure(Throwable error) {
+        return error instanceof WebClientRequestException
+            || classify(error) == AdaptiveConcurrencyLimiter.Outcome.DROPPED;
+    }
+
+    // 429, 5xx and timeouts mean the provider is struggling; other failures say nothing about capacity
+    private static AdaptiveConcurrencyLimiter.Outcome classify(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status == 429 || status >= 500
+                ? AdaptiveConcurrencyLimiter.Outcome.DROPPED
+                : AdaptiveConcurrencyLimiter.Outcome.IGNORED;
+        }
+        if (error instanceof TimeoutException || error instanceof ReadTimeoutException
+                || error instanceof WebClientRequestException && error.getCause() instanceof ReadTimeoutException) {
+            return AdaptiveConcurrencyLimiter.Outcome.DROPPED;
+        }
+        return AdaptiveConcurrencyLimiter.Outcome.IGNORED;
+    }
+
+    private ArticleResponse parseArticle(String text) {
+        try {
+            // Schema-constrained answers are plain JSON; free-text answers may wrap it in prose or fences
+            String json = text.stripLeading().startsWith("{") ? text : extractJsonObject(text);
+            if (json == null) {
+                System.err.println("No JSON object found in Gemini response");
+                return null;
+            }
+
+            ArticleResponse article = articleReader.readValue(json);
+            if (article.getTitle() == null || article.getSubtitle() == null || article.getContent() == null) {
+                System.err.println("Missing required fields in Gemini article response");
+                return null;
+            }
+            return article;
+        } catch (Exception e) {
+            System.err.println("Error parsing Gemini article response: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String extractJsonObject(String text) {
+        int startIndex = text.indexOf('{');
+        int endIndex = text.lastIndexOf('}');
+        return startIndex != -1 && endIndex > startIndex ? text.substring(startIndex, endIndex + 1) : null;
+    }
+
+    private GeminiResponse parseResponse(byte[] body) {
+        try {
+            return GeminiResponseParser.parse(body);
+        } catch (Exception e) {
+            System.err.println("Error parsing Gemini response: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private GeminiResponse parseStreamedEvent(String eventData) {
+        try {
+            return GeminiResponseParser.parse(eventData);
+        } catch (Exception e) {
+            System.err.println("Error parsing streamed Gemini event: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Usage is reported once per response (on the last event when streaming)
+    private void recordResponse(GeminiResponse response) {
+        GeminiResponse.UsageMetadata usage = response.usage();
+        if (usage != null && response.finishReason() != null) {
+            promptTokens.add(usage.promptTokenCount());
+            outputTokens.add(usage.candidatesTokenCount());
+            System.out.println("Gemini usage - prompt: " + usage.promptTokenCount()
+                + ", output: " + usage.candidatesTokenCount() + ", total: " + usage.totalTokenCount());
+        }
+        if ("MAX_TOKENS".equals(response.finishReason())) {
+            System.err.println("Gemini response truncated at maxOutputTokens");
+        }
+    }
+}
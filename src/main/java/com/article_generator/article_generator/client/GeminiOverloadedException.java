@@ -0,0 +1,12 @@
+package com.article_generator.article_generator.client;
+
+/**
+ * Thrown when a Gemini call is refused locally because the adaptive
+ * concurrency limit is reached and the wait queue is full.
+ */
+public class GeminiOverloadedException extends RuntimeException {
+
+    public GeminiOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,39 @@
+package com.article_generator.article_generator.client;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request body for generateContent / streamGenerateContent.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GeminiRequest(List<Content> contents, GenerationConfig generationConfig) {
+
+    public record Content(List<Part> parts) {}
+
+    public record Part(String text) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record GenerationConfig(String responseMimeType, Map<String, Object> responseSchema, Integer maxOutputTokens) {}
+
+    // Structured output schema for an article; propertyOrdering makes the title stream first
+    static final Map<String, Object> ARTICLE_SCHEMA = Map.of(
+        "type", "OBJECT",
+        "properties", Map.of(
+            "title", Map.of("type", "STRING"),
+            "subtitle", Map.of("type", "STRING"),
+            "content", Map.of("type", "STRING")
+        ),
+        "required", List.of("title", "subtitle", "content"),
+        "propertyOrdering", List.of("title", "subtitle", "content")
+    );
+
+    static GeminiRequest article(String prompt, boolean jsonMode, int maxOutputTokens) {
+        GenerationConfig config = jsonMode
+            ? new GenerationConfig("application/json", ARTICLE_SCHEMA, maxOutputTokens)
+            : new GenerationConfig(null, null, maxOutputTokens);
+        return new GeminiRequest(List.of(new Content(List.of(new Part(prompt)))), config);
+    }
+}
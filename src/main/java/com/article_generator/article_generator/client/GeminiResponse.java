@@ -0,0 +1,10 @@
+package com.article_generator.article_generator.client;
+
+/**
+ * The parts of a generateContent response we use: the text of the first
+ * candidate (all parts concatenated), why generation stopped, and token usage.
+ */
+public record GeminiResponse(String text, String finishReason, UsageMetadata usage) {
+
+    public record UsageMetadata(int promptTokenCount, int candidatesTokenCount, int totalTokenCount) {}
+}
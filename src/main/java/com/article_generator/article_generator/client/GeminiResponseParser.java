@@ -0,0 +1,134 @@
+package com.article_generator.article_generator.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Single-pass streaming reader for Gemini responses. Walks the token stream
+ * once, keeps only candidates[0].content.parts[*].text, finishReason and
+ * usageMetadata, and skips everything else (safety ratings, citations,
+ * other candidates) without building a tree or nested maps.
+ */
+public final class GeminiResponseParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private GeminiResponseParser() {
+    }
+
+    public static GeminiResponse parse(byte[] json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return read(parser);
+        }
+    }
+
+    public static GeminiResponse parse(String json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return read(parser);
+        }
+    }
+
+    private static GeminiResponse read(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object from Gemini");
+        }
+
+        String text = null;
+        String finishReason = null;
+        GeminiResponse.UsageMetadata usage = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("candidates".equals(field) && value == JsonToken.START_ARRAY) {
+                boolean first = true;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (first && parser.currentToken() == JsonToken.START_OBJECT) {
+                        CandidateFields candidate = readCandidate(parser);
+                        text = candidate.text;
+                        finishReason = candidate.finishReason;
+                        first = false;
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if ("usageMetadata".equals(field) && value == JsonToken.START_OBJECT) {
+                usage = readUsage(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return new GeminiResponse(text, finishReason, usage);
+    }
+
+    private static CandidateFields readCandidate(JsonParser parser) throws IOException {
+        CandidateFields candidate = new CandidateFields();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("content".equals(field) && value == JsonToken.START_OBJECT) {
+                candidate.text = readContentText(parser);
+            } else if ("finishReason".equals(field) && value == JsonToken.VALUE_STRING) {
+                candidate.finishReason = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return candidate;
+    }
+
+    // The answer nearly always arrives as one part; only multi-part answers pay for concatenation
+    private static String readContentText(JsonParser parser) throws IOException {
+        String text = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("parts".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String partField = parser.currentName();
+                        JsonToken partValue = parser.nextToken();
+                        if ("text".equals(partField) && partValue == JsonToken.VALUE_STRING) {
+                            text = text == null ? parser.getText() : text + parser.getText();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return text;
+    }
+
+    private static GeminiResponse.UsageMetadata readUsage(JsonParser parser) throws IOException {
+        int promptTokens = 0;
+        int candidatesTokens = 0;
+        int totalTokens = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NUMBER_INT) {
+                switch (field) {
+                    case "promptTokenCount" -> promptTokens = parser.getIntValue();
+                    case "candidatesTokenCount" -> candidatesTokens = parser.getIntValue();
+                    case "totalTokenCount" -> totalTokens = parser.getIntValue();
+                    default -> { }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new GeminiResponse.UsageMetadata(promptTokens, candidatesTokens, totalTokens);
+    }
+
+    private static final class CandidateFields {
+        private String text;
+        private String finishReason;
+    }
+}
@@ -0,0 +1,21 @@
+package com.article_generator.article_generator.client;
+
+import java.time.Duration;
+
+/**
+ * Thrown without contacting Gemini while the circuit breaker is open, i.e.
+ * the provider has recently been failing and is being given time to recover.
+ */
+public class GeminiUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public GeminiUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
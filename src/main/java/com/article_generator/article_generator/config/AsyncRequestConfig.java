@@ -0,0 +1,28 @@
+package com.article_generator.article_generator.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Async requests (endpoints returning a CompletableFuture) may run as long as
+ * a generation, so the default timeout sits above the generation deadline
+ * instead of the container's 30 s. SSE endpoints set their own timeouts.
+ */
+@Configuration
+public class AsyncRequestConfig implements WebMvcConfigurer {
+
+    // Room after the deadline to store the result and write the response
+    private static final Duration TIMEOUT_MARGIN = Duration.ofSeconds(15);
+
+    @Value("${app.generation.deadline-seconds:90}")
+    private long deadlineSeconds;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(Duration.ofSeconds(deadlineSeconds).plus(TIMEOUT_MARGIN).toMillis());
+    }
+}
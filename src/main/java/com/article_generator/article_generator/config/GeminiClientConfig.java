@@ -0,0 +1,128 @@
+package com.article_generator.article_generator.config;
+
+import com.article_generator.article_generator.client.AdaptiveConcurrencyLimiter;
+import com.article_generator.article_generator.client.CircuitBreaker;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class GeminiClientConfig {
+
+    @Value("${app.gemini.base-url:https://generativelanguage.googleapis.com/v1beta}")
+    private String baseUrl;
+
+    @Value("${app.gemini.pool.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${app.gemini.pool.pending-acquire-max:500}")
+    private int pendingAcquireMax;
+
+    @Value("${app.gemini.pool.pending-acquire-timeout-seconds:30}")
+    private long pendingAcquireTimeoutSeconds;
+
+    @Value("${app.gemini.pool.max-idle-seconds:60}")
+    private long maxIdleSeconds;
+
+    @Value("${app.gemini.pool.max-life-seconds:600}")
+    private long maxLifeSeconds;
+
+    @Value("${app.gemini.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${app.gemini.read-timeout-seconds:120}")
+    private long readTimeoutSeconds;
+
+    @Value("${app.gemini.limiter.initial-limit:10}")
+    private int limiterInitialLimit;
+
+    @Value("${app.gemini.limiter.min-limit:1}")
+    private int limiterMinLimit;
+
+    @Value("${app.gemini.limiter.max-limit:64}")
+    private int limiterMaxLimit;
+
+    @Value("${app.gemini.limiter.max-queue:200}")
+    private int limiterMaxQueue;
+
+    @Value("${app.gemini.limiter.backoff-ratio:0.75}")
+    private double limiterBackoffRatio;
+
+    @Value("${app.gemini.limiter.latency-ceiling-seconds:90}")
+    private long limiterLatencyCeilingSeconds;
+
+    @Value("${app.gemini.limiter.max-wait-seconds:60}")
+    private long limiterMaxWaitSeconds;
+
+    @Value("${app.gemini.circuit-breaker.failure-rate-threshold:50}")
+    private int breakerFailureRateThreshold;
+
+    @Value("${app.gemini.circuit-breaker.sliding-window-size:20}")
+    private int breakerSlidingWindowSize;
+
+    @Value("${app.gemini.circuit-breaker.minimum-calls:10}")
+    private int breakerMinimumCalls;
+
+    @Value("${app.gemini.circuit-breaker.open-seconds:30}")
+    private long breakerOpenSeconds;
+
+    @Value("${app.gemini.circuit-breaker.half-open-probes:2}")
+    private int breakerHalfOpenProbes;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider geminiConnectionProvider() {
+        // Keep-alive pool shared by every Gemini call so we stop paying TCP+TLS setup per request
+        return ConnectionProvider.builder("gemini")
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(pendingAcquireMax)
+            .pendingAcquireTimeout(Duration.ofSeconds(pendingAcquireTimeoutSeconds))
+            .maxIdleTime(Duration.ofSeconds(maxIdleSeconds))
+            .maxLifeTime(Duration.ofSeconds(maxLifeSeconds))
+            .evictInBackground(Duration.ofSeconds(30))
+            .build();
+    }
+
+    @Bean
+    public WebClient geminiWebClient(WebClient.Builder builder, ConnectionProvider geminiConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(geminiConnectionProvider)
+            // Negotiated over ALPN; falls back to HTTP/1.1 when the peer does not offer h2
+            .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+            .secure()
+            .keepAlive(true)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+            .responseTimeout(Duration.ofSeconds(readTimeoutSeconds))
+            .doOnConnected(connection -> connection.addHandlerLast(
+                new ReadTimeoutHandler(readTimeoutSeconds, TimeUnit.SECONDS)));
+
+        return builder
+            .baseUrl(baseUrl)
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            // Long articles exceed the default 256 KB in-memory buffer
+            .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(4 * 1024 * 1024))
+            .build();
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter geminiConcurrencyLimiter() {
+        return new AdaptiveConcurrencyLimiter(
+            limiterInitialLimit, limiterMinLimit, limiterMaxLimit, limiterMaxQueue, limiterBackoffRatio,
+            Duration.ofSeconds(limiterLatencyCeilingSeconds), Duration.ofSeconds(limiterMaxWaitSeconds));
+    }
+
+    @Bean
+    public CircuitBreaker geminiCircuitBreaker() {
+        return new CircuitBreaker(
+            breakerFailureRateThreshold, breakerSlidingWindowSize, breakerMinimumCalls,
+            Duration.ofSeconds(breakerOpenSeconds), breakerHalfOpenProbes);
+    }
+}
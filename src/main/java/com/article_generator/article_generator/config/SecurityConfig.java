@@ -24,9 +24,13 @@ public class SecurityConfig {
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/generateArticles").permitAll()
-                .requestMatchers("/api/trending").permitAll()
+                .requestMatchers("/api/generateArticles/stream").permitAll()
+                .requestMatchers("/api/generation-jobs", "/api/generation-jobs/**").permitAll()
+                .requestMatchers("/api/trending", "/api/trending/stream", "/api/trending/subscribe").permitAll()
+                .requestMatchers("/api/trending/refresh", "/api/trending/rebuilds/**").permitAll()
                 .requestMatchers("/api/health").permitAll()
                 .requestMatchers("/api/articles/**").permitAll()
+                .requestMatchers("/api/metrics/**").permitAll()
                 .anyRequest().authenticated()
             )
             .httpBasic(httpBasic -> httpBasic.disable())
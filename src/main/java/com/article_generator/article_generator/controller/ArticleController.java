@@ -1,5 +1,6 @@
 package com.article_generator.article_generator.controller;
 
+import com.article_generator.article_generator.dto.ArticlePageResponse;
 import com.article_generator.article_generator.dto.ArticleResponse;
 import com.article_generator.article_generator.service.ArticleService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,6 +8,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/articles")
@@ -16,30 +19,63 @@ public class ArticleController {
     @Autowired
     private ArticleService articleService;
 
+    // Listings are paged: pass the previous response's nextCursor to get the following page.
+    // view=summary leaves out content and returns a short preview and word count instead.
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<ArticleResponse>> getUserArticles(@PathVariable String userId) {
-        List<ArticleResponse> articles = articleService.getUserArticles(userId);
-        return ResponseEntity.ok(articles);
+    public ResponseEntity<ArticlePageResponse> getUserArticles(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false, defaultValue = "full") String view) {
+        return page(() -> articleService.getUserArticles(userId, cursor, limit, isSummary(view)));
     }
 
     @GetMapping("/user/{userId}/favorites")
-    public ResponseEntity<List<ArticleResponse>> getUserFavorites(@PathVariable String userId) {
-        List<ArticleResponse> articles = articleService.getUserFavorites(userId);
-        return ResponseEntity.ok(articles);
+    public ResponseEntity<ArticlePageResponse> getUserFavorites(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false, defaultValue = "full") String view) {
+        return page(() -> articleService.getUserFavorites(userId, cursor, limit, isSummary(view)));
     }
 
     @GetMapping("/user/{userId}/category/{category}")
-    public ResponseEntity<List<ArticleResponse>> getUserArticlesByCategory(
+    public ResponseEntity<ArticlePageResponse> getUserArticlesByCategory(
             @PathVariable String userId, 
-            @PathVariable String category) {
-        List<ArticleResponse> articles = articleService.getUserArticlesByCategory(userId, category);
-        return ResponseEntity.ok(articles);
+            @PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false, defaultValue = "full") String view) {
+        return page(() -> articleService.getUserArticlesByCategory(userId, category, cursor, limit, isSummary(view)));
+    }
+
+    @GetMapping("/{articleId}")
+    public ResponseEntity<ArticleResponse> getArticle(@PathVariable String articleId, @RequestParam String userId) {
+        return articleService.getUserArticle(articleId, userId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PostMapping("/{articleId}/toggle-favorite")
-    public ResponseEntity<String> toggleFavorite(@PathVariable String articleId, @RequestParam String userId) {
-        articleService.toggleFavorite(articleId, userId);
-        return ResponseEntity.ok("Favorite status updated");
+    public ResponseEntity<Map<String, Object>> toggleFavorite(@PathVariable String articleId, @RequestParam String userId) {
+        return articleService.toggleFavorite(articleId, userId)
+            .map(favorite -> ResponseEntity.ok(Map.<String, Object>of(
+                "message", "Favorite status updated",
+                "isFavorite", favorite)))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/{articleId}/category")
+    public ResponseEntity<String> updateCategory(
+            @PathVariable String articleId,
+            @RequestParam String userId,
+            @RequestParam String category) {
+        if (category.isBlank()) {
+            return ResponseEntity.badRequest().body("Category must not be blank");
+        }
+        return articleService.updateCategory(articleId, userId, category.trim())
+            ? ResponseEntity.ok("Category updated")
+            : ResponseEntity.notFound().build();
     }
 
     @DeleteMapping("/user/{userId}")
@@ -47,4 +83,21 @@ public class ArticleController {
         articleService.deleteUserArticles(userId);
         return ResponseEntity.ok("User articles deleted");
     }
-}
\ No newline at end of file
+
+    private static boolean isSummary(String view) {
+        return "summary".equalsIgnoreCase(view);
+    }
+
+    private ResponseEntity<ArticlePageResponse> page(Supplier<ArticlePageResponse> query) {
+        try {
+            return ResponseEntity.ok(query.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ArticlePageResponse.builder()
+                .articles(List.of())
+                .hasMore(false)
+                .success(false)
+                .message(e.getMessage())
+                .build());
+        }
+    }
+}
@@ -1,16 +1,26 @@
 package com.article_generator.article_generator.controller;
 
+import com.article_generator.article_generator.client.GeminiUnavailableException;
 import com.article_generator.article_generator.dto.ArticleGenerationRequest;
 import com.article_generator.article_generator.dto.ArticleGenerationResponse;
-import com.article_generator.article_generator.dto.ArticleResponse;
+import com.article_generator.article_generator.dto.ArticleStreamEvent;
 import com.article_generator.article_generator.service.ArticleGenerationService;
-import com.article_generator.article_generator.service.ArticleService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -18,52 +28,92 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class ArticleGenerationController {
 
+    // Room after the generation deadline for the final events to be written
+    private static final Duration STREAM_TIMEOUT_MARGIN = Duration.ofSeconds(15);
+
     @Autowired
     private ArticleGenerationService articleGenerationService;
 
-    @Autowired
-    private ArticleService articleService;
+    @Value("${app.generation.deadline-seconds:90}")
+    private long deadlineSeconds;
 
     @PostMapping("/generateArticles")
-    public ResponseEntity<ArticleGenerationResponse> generateArticles(@Valid @RequestBody ArticleGenerationRequest request) {
-        try {
-            String input = request.getInput();
-            if (input == null || input.trim().isEmpty()) {
-                return ResponseEntity.badRequest()
-                    .body(ArticleGenerationResponse.builder()
-                        .success(false)
-                        .message("Input cannot be empty")
-                        .articles(List.of())
-                        .build());
-            }
+    public CompletableFuture<ResponseEntity<ArticleGenerationResponse>> generateArticles(@Valid @RequestBody ArticleGenerationRequest request) {
+        String input = request.getInput();
+        if (input == null || input.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                .body(ArticleGenerationResponse.builder()
+                    .success(false)
+                    .message("Input cannot be empty")
+                    .articles(List.of())
+                    .build()));
+        }
 
-            List<ArticleResponse> articles = articleGenerationService.generateArticles(
+        // The servlet thread is released while Gemini works; the response is written when the future completes
+        CompletableFuture<ArticleGenerationService.GenerationResult> generation;
+        try {
+            generation = articleGenerationService.generateArticles(
                 input.trim(), 
                 request.getLength(), 
                 request.getTone(), 
                 request.getTemplate(),
-                request.getCategory()
+                request.getCategory(),
+                request.isFresh()
             );
-            
-            // Save articles to MongoDB
-            String userId = "anonymous"; // For now, use anonymous user
-            for (ArticleResponse article : articles) {
-                articleService.saveArticle(userId, article, "Generated");
-            }
-            
-            return ResponseEntity.ok(ArticleGenerationResponse.builder()
+        } catch (GeminiUnavailableException e) {
+            return CompletableFuture.completedFuture(errorResponse(e));
+        }
+
+        return generation
+            // The generation run stores its articles; the response carries their ids
+            .thenApply(result -> ResponseEntity.ok(ArticleGenerationResponse.builder()
                 .success(true)
                 .message("Articles generated successfully")
-                .articles(articles)
-                .build());
-                
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError()
+                .articles(result.articles())
+                .build()))
+            .exceptionally(this::errorResponse);
+    }
+
+    /**
+     * Streams articles as they are written. The connection is allowed to stay
+     * open a little past the generation deadline, which ends the event stream
+     * itself, so long articles are not cut off by the default async timeout.
+     */
+    @GetMapping(value = "/generateArticles/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamArticles(
+            @RequestParam String input,
+            @RequestParam(required = false, defaultValue = "medium") String length,
+            @RequestParam(required = false, defaultValue = "engaging") String tone,
+            @RequestParam(required = false, defaultValue = "general") String template,
+            @RequestParam(required = false, defaultValue = "all") String category) {
+        if (input.trim().isEmpty() || input.length() > 1000) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Flux<ServerSentEvent<ArticleStreamEvent>> events = articleGenerationService
+            .streamArticles(input.trim(), length, tone, template, category)
+            .map(event -> ServerSentEvent.builder(event).event(event.getType()).build());
+
+        Duration timeout = Duration.ofSeconds(deadlineSeconds).plus(STREAM_TIMEOUT_MARGIN);
+        return ResponseEntity.ok(SseEmitters.of(events, timeout));
+    }
+
+    private ResponseEntity<ArticleGenerationResponse> errorResponse(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof GeminiUnavailableException unavailable) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, unavailable.getRetryAfter().toSeconds())))
                 .body(ArticleGenerationResponse.builder()
                     .success(false)
-                    .message("Error generating articles: " + e.getMessage())
+                    .message("Article generation is temporarily unavailable, please try again shortly")
                     .articles(List.of())
                     .build());
         }
+        return ResponseEntity.internalServerError()
+            .body(ArticleGenerationResponse.builder()
+                .success(false)
+                .message("Error generating articles: " + cause.getMessage())
+                .articles(List.of())
+                .build());
     }
 }
@@ -0,0 +1,66 @@
+package com.article_generator.article_generator.controller;
+
+import com.article_generator.article_generator.dto.ArticleGenerationRequest;
+import com.article_generator.article_generator.dto.GenerationJobResponse;
+import com.article_generator.article_generator.service.GenerationJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.net.URI;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/generation-jobs")
+@CrossOrigin(origins = "*")
+public class GenerationJobController {
+
+    @Autowired
+    private GenerationJobService generationJobService;
+
+    @Value("${app.generation.jobs.retry-after-seconds:10}")
+    private long retryAfterSeconds;
+
+    @PostMapping
+    public ResponseEntity<GenerationJobResponse> createJob(@Valid @RequestBody ArticleGenerationRequest request) {
+        if (request.getInput() == null || request.getInput().trim().isEmpty()) {
+            return ResponseEntity.badRequest()
+                .body(GenerationJobResponse.builder()
+                    .success(false)
+                    .message("Input cannot be empty")
+                    .build());
+        }
+
+        try {
+            GenerationJobResponse job = generationJobService.submit(request);
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/generation-jobs/" + job.getJobId()))
+                .body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(GenerationJobResponse.builder()
+                    .success(false)
+                    .message("Too many generation jobs in progress, please retry later")
+                    .build());
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<GenerationJobResponse> getJob(@PathVariable String jobId) {
+        return generationJobService.getJob(jobId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<GenerationJobResponse> cancelJob(@PathVariable String jobId) {
+        return generationJobService.cancel(jobId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -1,11 +1,13 @@
 package com.article_generator.article_generator.controller;
 
 import com.article_generator.article_generator.dto.ArticleGenerationResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import java.util.List;
 
@@ -28,6 +30,18 @@ public class GlobalExceptionHandler {
             .build());
     }
 
+    // An async request outlived its timeout; the work may still finish and be cached for a retry
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<ArticleGenerationResponse> handleAsyncRequestTimeout(AsyncRequestTimeoutException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "10")
+            .body(ArticleGenerationResponse.builder()
+                .articles(List.of())
+                .success(false)
+                .message("The request timed out, please try again shortly")
+                .build());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ArticleGenerationResponse> handleGenericException(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
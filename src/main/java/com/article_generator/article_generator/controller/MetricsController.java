@@ -0,0 +1,67 @@
+package com.article_generator.article_generator.controller;
+
+import com.article_generator.article_generator.client.GeminiClient;
+import com.article_generator.article_generator.service.ArticleGenerationService;
+import com.article_generator.article_generator.service.ArticleWriteBehindService;
+import com.article_generator.article_generator.service.GenerationCacheService;
+import com.article_generator.article_generator.service.GenerationJobService;
+import com.article_generator.article_generator.service.TrendingArticlesService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+@CrossOrigin(origins = "*")
+public class MetricsController {
+
+    @Autowired
+    private GenerationCacheService generationCacheService;
+
+    @Autowired
+    private ArticleGenerationService articleGenerationService;
+
+    @Autowired
+    private GenerationJobService generationJobService;
+
+    @Autowired
+    private GeminiClient geminiClient;
+
+    @Autowired
+    private TrendingArticlesService trendingArticlesService;
+
+    @Autowired
+    private ArticleWriteBehindService articleWriteBehindService;
+
+    @GetMapping("/generation-cache")
+    public ResponseEntity<Map<String, Object>> getGenerationCacheStats() {
+        return ResponseEntity.ok(generationCacheService.getStats());
+    }
+
+    @GetMapping("/generation")
+    public ResponseEntity<Map<String, Object>> getGenerationStats() {
+        return ResponseEntity.ok(articleGenerationService.getStats());
+    }
+
+    @GetMapping("/generation-jobs")
+    public ResponseEntity<Map<String, Object>> getGenerationJobStats() {
+        return ResponseEntity.ok(generationJobService.getStats());
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<Map<String, Object>> getTrendingStats() {
+        return ResponseEntity.ok(trendingArticlesService.getStats());
+    }
+
+    @GetMapping("/article-writes")
+    public ResponseEntity<Map<String, Object>> getArticleWriteStats() {
+        return ResponseEntity.ok(articleWriteBehindService.getStats());
+    }
+
+    @GetMapping("/gemini")
+    public ResponseEntity<Map<String, Object>> getGeminiStats() {
+        return ResponseEntity.ok(geminiClient.getStats());
+    }
+}
@@ -0,0 +1,65 @@
+package com.article_generator.article_generator.controller;
+
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Writes a Flux of server-sent events through an SseEmitter so each endpoint
+ * states its own async timeout instead of inheriting the servlet default.
+ */
+final class SseEmitters {
+
+    // Servlet containers treat a non-positive async timeout as none
+    static final Duration NO_TIMEOUT = Duration.ZERO;
+
+    private SseEmitters() {
+    }
+
+    /**
+     * Subscribes to the events and relays each one to the emitter. The
+     * subscription is cancelled when the client goes away or the timeout
+     * passes, and the emitter completes when the Flux does.
+     */
+    static <T> SseEmitter of(Flux<ServerSentEvent<T>> events, Duration timeout) {
+        SseEmitter emitter = new SseEmitter(timeout.isZero() ? -1L : timeout.toMillis());
+        Disposable subscription = events.subscribe(
+            event -> send(emitter, event),
+            emitter::completeWithError,
+            emitter::complete);
+        emitter.onCompletion(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+        emitter.onTimeout(() -> {
+            subscription.dispose();
+            emitter.complete();
+        });
+        return emitter;
+    }
+
+    private static <T> void send(SseEmitter emitter, ServerSentEvent<T> event) {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event();
+        if (event.id() != null) {
+            builder.id(event.id());
+        }
+        if (event.event() != null) {
+            builder.name(event.event());
+        }
+        if (event.comment() != null) {
+            builder.comment(event.comment());
+        }
+        if (event.data() != null) {
+            builder.data(event.data());
+        }
+        try {
+            emitter.send(builder);
+        } catch (IOException e) {
+            // Client disconnected; failing here cancels the upstream subscription
+            throw Exceptions.propagate(e);
+        }
+    }
+}
@@ -1,12 +1,24 @@
 package com.article_generator.article_generator.controller;
 
-import com.article_generator.article_generator.dto.ArticleResponse;
+import com.article_generator.article_generator.dto.TrendingStreamEvent;
 import com.article_generator.article_generator.service.TrendingArticlesService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
 
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
@@ -17,19 +29,46 @@ public class TrendingController {
     @Autowired
     private TrendingArticlesService trendingArticlesService;
 
+    @Value("${app.trending.subscribe-heartbeat-seconds:25}")
+    private long heartbeatSeconds;
+
+    @Value("${app.trending.stream-timeout-seconds:300}")
+    private long streamTimeoutSeconds;
+
+    /**
+     * Serves the pre-serialized snapshot bytes. Each encoding has its own
+     * strong ETag, so clients revalidate with If-None-Match and get a
+     * bodiless 304 until the category's articles change; gzip is sent when
+     * the client accepts it.
+     */
     @GetMapping("/trending")
-    public ResponseEntity<Map<String, Object>> getTrendingArticles(
-            @RequestParam(required = false, defaultValue = "all") String category) {
+    public ResponseEntity<?> getTrendingArticles(
+            @RequestParam(required = false, defaultValue = "all") String category,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            List<ArticleResponse> trendingArticles = trendingArticlesService.getTrendingArticles(category);
-            
-            return ResponseEntity.ok(Map.of(
-                "articles", trendingArticles,
-                "success", true,
-                "message", "Trending articles retrieved successfully",
-                "count", trendingArticles.size(),
-                "category", category
-            ));
+            TrendingArticlesService.Payload payload = trendingArticlesService.getTrendingPayload(category);
+
+            boolean gzip = payload.gzip() != null && acceptsGzip(acceptEncoding);
+            String etag = gzip ? payload.gzipEtag() : payload.etag();
+
+            if (etagMatches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+            }
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+            if (gzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return response.body(gzip ? payload.gzip() : payload.json());
             
         } catch (Exception e) {
             e.printStackTrace();
@@ -43,30 +82,118 @@ public class TrendingController {
         }
     }
 
+    // If-None-Match uses weak comparison and may list several tags
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // gzip (or x-gzip) listed with q > 0, or not listed but covered by * with q > 0; q defaults to 1
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
+    }
+
+    /**
+     * Server-sent events for the sidebar: held articles first, then each
+     * regenerated one as it finishes, then a summary event. A cold category
+     * can take several article timeouts, so the connection gets its own
+     * timeout rather than the default async one.
+     */
+    @GetMapping(value = "/trending/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTrendingArticles(
+            @RequestParam(required = false, defaultValue = "all") String category) {
+        Flux<ServerSentEvent<TrendingStreamEvent>> events = trendingArticlesService.streamTrending(category)
+            .map(event -> ServerSentEvent.builder(event).event(event.getType()).build());
+        return ResponseEntity.ok(SseEmitters.of(events, Duration.ofSeconds(streamTimeoutSeconds)));
+    }
+
+    /**
+     * Long-lived event stream announcing new snapshot versions for a
+     * comma-separated list of categories, so clients refetch /api/trending
+     * only when something changed instead of polling. The connection has no
+     * async timeout; comment heartbeats keep it open through proxies and
+     * surface disconnected clients, which ends the subscription.
+     */
+    @GetMapping(value = "/trending/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToTrendingUpdates(
+            @RequestParam(required = false, defaultValue = "all") List<String> categories) {
+        Flux<ServerSentEvent<TrendingStreamEvent>> updates = trendingArticlesService.subscribeToVersions(categories)
+            .map(event -> ServerSentEvent.builder(event).event(event.getType()).build());
+        Flux<ServerSentEvent<TrendingStreamEvent>> heartbeats = Flux.interval(Duration.ofSeconds(heartbeatSeconds))
+            .map(tick -> ServerSentEvent.<TrendingStreamEvent>builder().comment("keepalive").build());
+        return ResponseEntity.ok(SseEmitters.of(Flux.merge(updates, heartbeats), SseEmitters.NO_TIMEOUT));
+    }
+
+    /**
+     * Starts a full rebuild of the category in the background (or queues one
+     * behind a partial rebuild already running) and returns at once.
+     * /api/trending keeps serving the current snapshot until the new one is
+     * complete; poll the Location for the rebuild's status.
+     */
     @PostMapping("/trending/refresh")
     public ResponseEntity<Map<String, Object>> refreshTrendingArticles(
             @RequestParam(required = false, defaultValue = "all") String category) {
-        try {
-            // Force refresh by clearing cache
-            List<ArticleResponse> trendingArticles = trendingArticlesService.getTrendingArticles(category);
-            
-            return ResponseEntity.ok(Map.of(
-                "articles", trendingArticles,
-                "success", true,
-                "message", "Trending articles refreshed successfully",
-                "count", trendingArticles.size(),
-                "category", category
-            ));
-            
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.ok(Map.of(
-                "articles", List.of(),
-                "success", false,
-                "message", "Error refreshing trending articles: " + e.getMessage(),
-                "count", 0,
-                "category", category
-            ));
+        TrendingArticlesService.Rebuild rebuild = trendingArticlesService.refresh(category);
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/trending/rebuilds/" + rebuild.id()))
+            .body(rebuildBody(rebuild, "Trending refresh " + rebuild.status()));
+    }
+
+    @GetMapping("/trending/rebuilds/{rebuildId}")
+    public ResponseEntity<Map<String, Object>> getRebuild(@PathVariable String rebuildId) {
+        return trendingArticlesService.getRebuild(rebuildId)
+            .map(rebuild -> ResponseEntity.ok(rebuildBody(rebuild, "Trending refresh " + rebuild.status())))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private Map<String, Object> rebuildBody(TrendingArticlesService.Rebuild rebuild, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("rebuildId", rebuild.id());
+        body.put("category", rebuild.category());
+        body.put("status", rebuild.status());
+        body.put("startedAt", rebuild.startedAt().toString());
+        if ("completed".equals(rebuild.status())) {
+            body.put("version", rebuild.result().join().version());
         }
+        body.put("success", !"failed".equals(rebuild.status()));
+        body.put("message", message);
+        return body;
     }
 }
@@ -14,4 +14,5 @@ public class ArticleGenerationRequest {
     private String tone = "engaging"; // professional, casual, urgent, engaging, inspirational
     private String template = "general"; // general, howto, listicle, story, comparison
     private String category = "all"; // category for context
+    private boolean fresh = false; // skip the generation cache and force new variants
 }
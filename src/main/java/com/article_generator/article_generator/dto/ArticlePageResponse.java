@@ -0,0 +1,17 @@
+package com.article_generator.article_generator.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ArticlePageResponse {
+    private List<ArticleResponse> articles;
+    // Opaque token for the next page; null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+    private String message;
+    private boolean success;
+}
@@ -1,10 +1,15 @@
 package com.article_generator.article_generator.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
 public class ArticleResponse {
     private String id;
     private String title;
@@ -17,4 +22,11 @@ public class ArticleResponse {
     private double aiScore;
     private boolean isFavorite;
     private String category;
+
+    // Only set on summary listings, where content is left out
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String preview;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer wordCount;
 }
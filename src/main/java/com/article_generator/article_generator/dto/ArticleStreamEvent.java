@@ -0,0 +1,19 @@
+package com.article_generator.article_generator.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ArticleStreamEvent {
+    private String type; // start, chunk, end, error, done
+    private Integer variant;
+    private String field; // title, subtitle, content
+    private String text;
+}
@@ -0,0 +1,22 @@
+package com.article_generator.article_generator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerationJobResponse {
+    private String jobId;
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    private List<ArticleResponse> articles; // articles finished so far
+    private String createdAt;
+    private String completedAt;
+    private String message;
+    private boolean success;
+}
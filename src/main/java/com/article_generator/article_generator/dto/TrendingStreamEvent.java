@@ -0,0 +1,23 @@
+package com.article_generator.article_generator.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TrendingStreamEvent {
+    private String type; // article, summary, error, version
+    private Integer position; // 1-based topic position; a later article event replaces the card at the same position
+    private Boolean cached;
+    private ArticleResponse article;
+    private String category;
+    private Integer count;
+    private Long version;
+    private String message;
+}
@@ -2,7 +2,8 @@ package com.article_generator.article_generator.entity;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -11,6 +12,13 @@ import lombok.Builder;
 import java.time.LocalDateTime;
 
 @Document(collection = "articles")
+// One index per listing shape: equality fields first, then the (createdAt, _id) keyset sort.
+// userId leads every index, so lookups and deletes by user alone are covered too.
+@CompoundIndexes({
+    @CompoundIndex(name = "user_created", def = "{'userId': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "user_favorite_created", def = "{'userId': 1, 'isFavorite': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "user_category_created", def = "{'userId': 1, 'category': 1, 'createdAt': -1, '_id': -1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,12 +27,15 @@ public class Article {
     @Id
     private String id;
     
-    @Indexed
     private String userId;
     
     private String title;
     private String subtitle;
     private String content;
+    // Derived from content at save time so listings can skip loading it;
+    // null on documents written before the fields existed until backfilled
+    private String preview;
+    private Integer wordCount;
     private String category;
     private boolean isFavorite;
     private LocalDateTime createdAt;
@@ -0,0 +1,31 @@
+package com.article_generator.article_generator.entity;
+
+import com.article_generator.article_generator.dto.ArticleResponse;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.Indexed;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.Instant;
+import java.util.List;
+
+@Document(collection = "generation_cache")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GenerationCacheEntry {
+    // Fingerprint of the normalized generation parameters
+    @Id
+    private String id;
+
+    private List<ArticleResponse> articles;
+    private Instant createdAt;
+
+    // TTL index: Mongo removes each entry once its own expiresAt has passed
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+}
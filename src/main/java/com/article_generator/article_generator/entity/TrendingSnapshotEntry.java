@@ -0,0 +1,54 @@
+package com.article_generator.article_generator.entity;
+
+import com.article_generator.article_generator.dto.ArticleResponse;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.Indexed;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.Instant;
+import java.util.List;
+
+@Document(collection = "trending_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrendingSnapshotEntry {
+    // "<category>:<yyyy-MM-dd>", one document per category and day
+    @Id
+    private String id;
+
+    @Indexed
+    private String date;
+
+    private String category;
+
+    // One per topic, in topic order; each keeps its own lifetime
+    private List<Slot> slots;
+
+    // Earliest slot expiry, i.e. when the snapshot next needs work
+    private Instant expiresAt;
+
+    // Snapshot version at save time, restored on load so it never moves backwards across restarts
+    private long version;
+
+    // TTL index: old days are purged by Mongo once they can no longer be served
+    @Indexed(expireAfter = "3d")
+    private Instant createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Slot {
+        private String topic;
+        // Null when generation failed and there was no earlier article to keep
+        private ArticleResponse article;
+        private Instant generatedAt;
+        private Instant expiresAt;
+    }
+}
@@ -0,0 +1,9 @@
+package com.article_generator.article_generator.repository;
+
+import com.article_generator.article_generator.entity.GenerationCacheEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GenerationCacheRepository extends MongoRepository<GenerationCacheEntry, String> {
+}
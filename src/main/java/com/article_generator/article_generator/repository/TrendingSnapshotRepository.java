@@ -0,0 +1,14 @@
+package com.article_generator.article_generator.repository;
+
+import com.article_generator.article_generator.entity.TrendingSnapshotEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TrendingSnapshotRepository extends MongoRepository<TrendingSnapshotEntry, String> {
+
+    List<TrendingSnapshotEntry> findByDateIn(Collection<String> dates);
+}
@@ -1,200 +1,243 @@
 package com.article_generator.article_generator.service;
 
+import com.article_generator.article_generator.client.GeminiClient;
 import com.article_generator.article_generator.dto.ArticleResponse;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.article_generator.article_generator.dto.ArticleStreamEvent;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 public class ArticleGenerationService {
 
-    @Value("${spring.ai.google.ai.api-key}")
-    private String apiKey;
+    private static final int VARIANT_COUNT = 3;
+
+    // Overall budget for all variants of one request; whatever finished by then is returned
+    @Value("${app.generation.deadline-seconds:90}")
+    private long deadlineSeconds;
 
     @Autowired
     private ArticleService articleService;
-    
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final RestTemplate restTemplate = new RestTemplate();
 
-    public List<ArticleResponse> generateArticles(String input) {
-        return generateArticles(input, "medium", "engaging", "general", "all");
+    @Autowired
+    private GeminiClient geminiClient;
+
+    @Autowired
+    private GenerationCacheService generationCacheService;
+
+    // Generation runs currently in progress, keyed by parameter fingerprint
+    private final Map<String, Flux<ArticleResponse>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalescedRequests = new LongAdder();
+
+    /** Where a set of variants came from. Generated articles are stored by the run itself, not by callers. */
+    public enum Source { GENERATED, JOINED, CACHED }
+
+    public record Variants(Flux<ArticleResponse> articles, Source source) {}
+
+    public record GenerationResult(List<ArticleResponse> articles, Source source) {}
+
+    public CompletableFuture<GenerationResult> generateArticles(String input) {
+        return generateArticles(input, "medium", "engaging", "general", "all", false);
+    }
+
+    public CompletableFuture<GenerationResult> generateArticles(String input, String length, String tone, String template, String category, boolean bypassCache) {
+        Variants variants = articleVariants(input, length, tone, template, category, bypassCache);
+        return variants.articles()
+            .collectList()
+            .doOnNext(articles -> System.out.println("Total articles generated: " + articles.size()))
+            .map(articles -> new GenerationResult(articles, variants.source()))
+            // Hand the result off the Netty event loop so callers may do blocking work (e.g. Mongo saves)
+            .publishOn(Schedulers.boundedElastic())
+            .toFuture();
     }
 
-    public List<ArticleResponse> generateArticles(String input, String length, String tone, String template, String category) {
+    /**
+     * Returns the article set for these parameters: from the cache when present,
+     * otherwise from a generation run. Concurrent callers with the same
+     * parameters share one run instead of each paying for three Gemini calls.
+     * bypassCache skips the cache lookup (a fresh result still replaces the cached one).
+     * Article ids are assigned when a variant is generated and each finished
+     * run is stored once, so cached and shared copies carry the ids of
+     * articles that exist.
+     */
+    public Variants articleVariants(String input, String length, String tone, String template, String category, boolean bypassCache) {
         System.out.println("Starting article generation for input: " + input);
         System.out.println("Parameters - Length: " + length + ", Tone: " + tone + ", Template: " + template + ", Category: " + category);
-        List<ArticleResponse> articles = new ArrayList<>();
-        
-        for (int i = 0; i < 3; i++) {
-            System.out.println("Generating article " + (i + 1) + " of 3");
-            ArticleResponse article = generateSingleArticle(input, length, tone, template, category, i + 1);
-            if (article != null) {
-                articles.add(article);
-                System.out.println("Successfully generated article " + (i + 1));
-            } else {
-                System.out.println("Failed to generate article " + (i + 1));
+
+        String cacheKey = GenerationCacheService.fingerprint(input, length, tone, template, category);
+        if (bypassCache) {
+            generationCacheService.recordBypass();
+        } else {
+            Optional<List<ArticleResponse>> cached = generationCacheService.get(cacheKey);
+            if (cached.isPresent()) {
+                System.out.println("Serving " + cached.get().size() + " articles from generation cache");
+                return new Variants(Flux.fromIterable(cached.get()), Source.CACHED);
             }
         }
-        
-        System.out.println("Total articles generated: " + articles.size());
-        return articles;
+
+        // While Gemini is known to be down, fail fast rather than queueing doomed calls
+        geminiClient.ensureAvailable();
+
+        Variants run = joinOrStartGeneration(cacheKey, input, length, tone, template, category);
+        // Every caller gets its own copies since the shared run hands out the same instances
+        return new Variants(run.articles().map(article -> article.toBuilder().build()), run.source());
     }
 
-    private ArticleResponse generateSingleArticle(String input, String length, String tone, String template, String category, int articleNumber) {
-        System.out.println("Generating article " + articleNumber + " for input: " + input);
-        try {
-            String prompt = buildPrompt(input, length, tone, template, category);
+    public Map<String, Object> getStats() {
+        return Map.of(
+            "inFlight", inFlight.size(),
+            "coalescedRequests", coalescedRequests.sum()
+        );
+    }
 
-            String response = callGoogleAI(prompt);
-            System.out.println("Raw API response: " + response);
-            
-            // Parse JSON response
-            ArticleResponse article = parseArticleFromResponse(response);
-            System.out.println("Parsed article: " + (article != null ? "SUCCESS" : "FAILED"));
-            
-            if (article != null) {
-                // Set AI detection as false since we're not using the service
-                article.setAiDetected(false);
-                article.setAiScore(0.0);
-            }
-            
-            return article;
-            
-        } catch (Exception e) {
-            System.err.println("Error in generateSingleArticle: " + e.getMessage());
-            e.printStackTrace();
-            return null;
+    private Variants joinOrStartGeneration(String key, String input, String length, String tone, String template, String category) {
+        Flux<ArticleResponse> existing = inFlight.get(key);
+        if (existing != null) {
+            coalescedRequests.increment();
+            return new Variants(existing, Source.JOINED);
+        }
+
+        AtomicReference<Flux<ArticleResponse>> started = new AtomicReference<>();
+        Flux<ArticleResponse> run = inFlight.computeIfAbsent(key, k -> {
+            AtomicReference<Flux<ArticleResponse>> self = new AtomicReference<>();
+            // Set before completion is signalled, so a caller still holding a finished run replays it instead of reconnecting
+            AtomicReference<List<ArticleResponse>> finished = new AtomicReference<>();
+            Flux<ArticleResponse> shared = Flux.defer(() -> {
+                    List<ArticleResponse> completed = Collections.synchronizedList(new ArrayList<>());
+                    return generateArticleVariants(input, length, tone, template, category)
+                        .doOnNext(completed::add)
+                        .doOnComplete(() -> {
+                            List<ArticleResponse> result = List.copyOf(completed);
+                            finished.set(result);
+                            Schedulers.boundedElastic().schedule(() -> {
+                                // Stored once per run, even if the caller that started it has gone, so every
+                                // joiner and later cache hit links to an article that exists
+                                articleService.queueArticles("anonymous", result, "Generated");
+                                // Only complete sets are cached; a deadline-truncated result should not be replayed
+                                if (result.size() == VARIANT_COUNT) {
+                                    generationCacheService.put(k, result);
+                                }
+                            });
+                        });
+                })
+                // Dropped before subscribers see the terminal signal, so no new caller joins a run that is finishing;
+                // also on cancellation, so entries never outlive their run
+                .doOnTerminate(() -> inFlight.remove(k, self.get()))
+                .doOnCancel(() -> inFlight.remove(k, self.get()))
+                // Late joiners get the variants already produced; the run is cancelled once nobody listens
+                .replay()
+                .refCount();
+            Flux<ArticleResponse> joinable = Flux.defer(() -> {
+                List<ArticleResponse> result = finished.get();
+                return result != null ? Flux.fromIterable(result) : shared;
+            });
+            self.set(joinable);
+            started.set(joinable);
+            return joinable;
+        });
+        if (started.get() == null) {
+            coalescedRequests.increment();
+            return new Variants(run, Source.JOINED);
         }
+        return new Variants(run, Source.GENERATED);
     }
 
-    @Value("${spring.ai.google.ai.model}")
-    private String modelName;
+    /**
+     * Runs all variants concurrently under one shared deadline and emits each
+     * article as soon as it is parsed. Variants still running at the deadline
+     * are cancelled, so the caller gets whatever finished in time.
+     */
+    public Flux<ArticleResponse> generateArticleVariants(String input, String length, String tone, String template, String category) {
+        String prompt = buildPrompt(input, length, tone, template, category);
+        int maxOutputTokens = maxOutputTokens(length);
 
-    private String callGoogleAI(String prompt) {
-        try {
-            String url = "https://generativelanguage.googleapis.com/v1beta/models/" + modelName + ":generateContent?key=" + apiKey;
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Content-Type", "application/json");
-            
-            Map<String, Object> requestBody = new HashMap<>();
-            Map<String, Object> content = new HashMap<>();
-            Map<String, Object> part = new HashMap<>();
-            part.put("text", prompt);
-            content.put("parts", new Object[]{part});
-            requestBody.put("contents", new Object[]{content});
-            
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(
-                url, 
-                HttpMethod.POST, 
-                entity, 
-                Map.class
-            );
-            
-            System.out.println("API Response Status: " + response.getStatusCode());
-            System.out.println("API Response Body: " + response.getBody());
-            System.out.println("Using model: " + modelName);
-            
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                Map<String, Object> responseBody = response.getBody();
-                List<Map<String, Object>> candidates = (List<Map<String, Object>>) responseBody.get("candidates");
-                if (candidates != null && !candidates.isEmpty()) {
-                    Map<String, Object> candidate = candidates.get(0);
-                    Map<String, Object> contentMap = (Map<String, Object>) candidate.get("content");
-                    if (contentMap != null) {
-                        List<Map<String, Object>> parts = (List<Map<String, Object>>) contentMap.get("parts");
-                        if (parts != null && !parts.isEmpty()) {
-                            return (String) parts.get(0).get("text");
-                        }
-                    }
-                }
-            } else {
-                System.err.println("API call failed with status: " + response.getStatusCode());
-                System.err.println("Response body: " + response.getBody());
-            }
-        } catch (Exception e) {
-            System.err.println("Error calling Gemini API: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return null;
+        return Flux.range(1, VARIANT_COUNT)
+            .flatMap(articleNumber -> generateSingleArticle(prompt, maxOutputTokens, articleNumber))
+            .take(Duration.ofSeconds(deadlineSeconds));
     }
 
-    private ArticleResponse parseArticleFromResponse(String response) {
-        try {
-            if (response == null || response.trim().isEmpty()) {
-                System.err.println("Response is null or empty");
-                return null;
-            }
-            
-            // Clean the response to extract JSON
-            String jsonResponse = extractJsonFromResponse(response);
-            if (jsonResponse == null) {
-                System.err.println("Could not extract JSON from response: " + response);
-                return null;
-            }
-            
-            JsonNode jsonNode = objectMapper.readTree(jsonResponse);
-            
-            String title = jsonNode.get("title") != null ? jsonNode.get("title").asText() : null;
-            String subtitle = jsonNode.get("subtitle") != null ? jsonNode.get("subtitle").asText() : null;
-            String content = jsonNode.get("content") != null ? jsonNode.get("content").asText() : null;
-            
-            if (title != null && subtitle != null && content != null) {
-                return ArticleResponse.builder()
-                    .title(title)
-                    .subtitle(subtitle)
-                    .content(content)
-                    .author("Sarah M.")
-                    .publishedAt(java.time.LocalDateTime.now().toString())
-                    .aiDetected(false)
-                    .aiScore(0.0)
-                    .build();
-            } else {
-                System.err.println("Missing required fields in JSON response");
-                System.err.println("Title: " + title + ", Subtitle: " + subtitle + ", Content: " + (content != null ? "present" : "null"));
-            }
-        } catch (Exception e) {
-            System.err.println("Error parsing article response: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return null;
+    /**
+     * Streams all variants at once as they are generated. Each event carries
+     * the variant number, so the client can interleave three articles; text is
+     * forwarded per token batch and never accumulated on the server.
+     */
+    public Flux<ArticleStreamEvent> streamArticles(String input, String length, String tone, String template, String category) {
+        String prompt = buildPrompt(input, length, tone, template, category);
+        int maxOutputTokens = maxOutputTokens(length);
+
+        return Flux.range(1, VARIANT_COUNT)
+            .flatMap(variant -> streamSingleArticle(prompt, maxOutputTokens, variant))
+            .take(Duration.ofSeconds(deadlineSeconds))
+            .concatWith(Mono.just(ArticleStreamEvent.builder().type("done").build()));
     }
 
-    private String extractJsonFromResponse(String response) {
-        try {
-            if (response == null || response.trim().isEmpty()) {
-                return null;
-            }
-            
-            // Try to find JSON object in the response
-            int startIndex = response.indexOf("{");
-            int endIndex = response.lastIndexOf("}");
-            
-            if (startIndex != -1 && endIndex != -1 && endIndex > startIndex) {
-                return response.substring(startIndex, endIndex + 1);
-            } else {
-                System.err.println("No JSON object found in response: " + response);
-            }
-        } catch (Exception e) {
-            System.err.println("Error extracting JSON from response: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return null;
+    private Flux<ArticleStreamEvent> streamSingleArticle(String prompt, int maxOutputTokens, int variant) {
+        ArticleJsonStreamParser parser = new ArticleJsonStreamParser();
+
+        Flux<ArticleStreamEvent> chunks = geminiClient.streamArticle(prompt, maxOutputTokens)
+            .concatMapIterable(parser::feed)
+            .map(chunk -> ArticleStreamEvent.builder()
+                .type("chunk")
+                .variant(variant)
+                .field(chunk.field())
+                .text(chunk.text())
+                .build());
+
+        return Flux.concat(
+                Mono.just(ArticleStreamEvent.builder().type("start").variant(variant).build()),
+                chunks,
+                Mono.just(ArticleStreamEvent.builder().type("end").variant(variant).build()))
+            .onErrorResume(e -> {
+                System.err.println("Error streaming article " + variant + ": " + e.getMessage());
+                return Mono.just(ArticleStreamEvent.builder()
+                    .type("error")
+                    .variant(variant)
+                    .text("Failed to generate article")
+                    .build());
+            });
+    }
+
+    private Mono<ArticleResponse> generateSingleArticle(String prompt, int maxOutputTokens, int articleNumber) {
+        System.out.println("Generating article " + articleNumber + " of " + VARIANT_COUNT);
+        return geminiClient.generateArticle(prompt, maxOutputTokens)
+            .doOnNext(article -> {
+                // Assigned here so joiners and later cache hits link to the article the generating caller stores
+                article.setId(new ObjectId().toHexString());
+                article.setAuthor("Sarah M.");
+                article.setPublishedAt(java.time.LocalDateTime.now().toString());
+                // Set AI detection as false since we're not using the service
+                article.setAiDetected(false);
+                article.setAiScore(0.0);
+            })
+            .doOnSuccess(article -> System.out.println("Parsed article " + articleNumber + ": " + (article != null ? "SUCCESS" : "FAILED")))
+            .onErrorResume(e -> {
+                System.err.println("Error generating article " + articleNumber + ": " + e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    // Output budget per length setting: about 1.3 tokens per word plus JSON overhead and some slack
+    private int maxOutputTokens(String length) {
+        return switch (length) {
+            case "short" -> 1024;
+            case "long" -> 4096;
+            default -> 2560;
+        };
     }
 
     private String buildPrompt(String input, String length, String tone, String template, String category) {
@@ -0,0 +1,137 @@
+package com.article_generator.article_generator.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Incrementally pulls the title/subtitle/content string values out of the
+ * model's JSON answer while it is still being streamed, so text can be
+ * forwarded as soon as it arrives instead of after the closing brace.
+ * Not thread-safe; one instance per streamed article.
+ */
+class ArticleJsonStreamParser {
+
+    private static final Set<String> FIELDS = Set.of("title", "subtitle", "content");
+
+    private enum State { SEEK_KEY, IN_KEY, SEEK_COLON, SEEK_VALUE, IN_VALUE, SKIP_VALUE }
+
+    record FieldChunk(String field, String text) {}
+
+    private State state = State.SEEK_KEY;
+    private final StringBuilder key = new StringBuilder();
+    private String currentField;
+    private boolean escaped;
+    private StringBuilder unicode;
+    private char pendingHighSurrogate;
+
+    List<FieldChunk> feed(String delta) {
+        List<FieldChunk> chunks = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+
+        for (int i = 0; i < delta.length(); i++) {
+            char c = delta.charAt(i);
+            switch (state) {
+                case SEEK_KEY -> {
+                    if (c == '"') {
+                        key.setLength(0);
+                        state = State.IN_KEY;
+                    }
+                }
+                case IN_KEY -> {
+                    if (escaped) {
+                        key.append(c);
+                        escaped = false;
+                    } else if (c == '\\') {
+                        escaped = true;
+                    } else if (c == '"') {
+                        state = State.SEEK_COLON;
+                    } else {
+                        key.append(c);
+                    }
+                }
+                case SEEK_COLON -> {
+                    if (c == ':') {
+                        state = State.SEEK_VALUE;
+                    } else if (!Character.isWhitespace(c)) {
+                        // The quoted text was a value, not a key; start over
+                        state = c == '"' ? State.IN_KEY : State.SEEK_KEY;
+                        key.setLength(0);
+                    }
+                }
+                case SEEK_VALUE -> {
+                    if (c == '"') {
+                        String name = key.toString();
+                        currentField = FIELDS.contains(name) ? name : null;
+                        state = currentField != null ? State.IN_VALUE : State.SKIP_VALUE;
+                    } else if (!Character.isWhitespace(c)) {
+                        // Non-string value (number, object, ...) is of no interest
+                        state = State.SEEK_KEY;
+                    }
+                }
+                case IN_VALUE, SKIP_VALUE -> readValueChar(c, value, chunks);
+            }
+        }
+
+        flush(value, chunks);
+        return chunks;
+    }
+
+    private void readValueChar(char c, StringBuilder value, List<FieldChunk> chunks) {
+        if (unicode != null) {
+            unicode.append(c);
+            if (unicode.length() == 4) {
+                appendValue((char) Integer.parseInt(unicode.toString(), 16), value);
+                unicode = null;
+            }
+            return;
+        }
+        if (escaped) {
+            escaped = false;
+            switch (c) {
+                case 'n' -> appendValue('\n', value);
+                case 't' -> appendValue('\t', value);
+                case 'r' -> appendValue('\r', value);
+                case 'b' -> appendValue('\b', value);
+                case 'f' -> appendValue('\f', value);
+                case 'u' -> unicode = new StringBuilder(4);
+                default -> appendValue(c, value);
+            }
+            return;
+        }
+        if (c == '\\') {
+            escaped = true;
+        } else if (c == '"') {
+            if (state == State.IN_VALUE) {
+                flush(value, chunks);
+                currentField = null;
+            }
+            state = State.SEEK_KEY;
+        } else {
+            appendValue(c, value);
+        }
+    }
+
+    private void appendValue(char c, StringBuilder value) {
+        if (state != State.IN_VALUE) {
+            return;
+        }
+        if (pendingHighSurrogate != 0) {
+            value.append(pendingHighSurrogate);
+            pendingHighSurrogate = 0;
+        }
+        value.append(c);
+    }
+
+    private void flush(StringBuilder value, List<FieldChunk> chunks) {
+        // Hold back a dangling high surrogate so a split emoji is never sent as half a character
+        if (!value.isEmpty() && Character.isHighSurrogate(value.charAt(value.length() - 1))) {
+            pendingHighSurrogate = value.charAt(value.length() - 1);
+            value.setLength(value.length() - 1);
+        }
+        if (!value.isEmpty() && currentField != null) {
+            chunks.add(new FieldChunk(currentField, value.toString()));
+        }
+        value.setLength(0);
+    }
+}
@@ -1,58 +1,69 @@
 package com.article_generator.article_generator.service;
 
-import com.article_generator.article_generator.dto.ArticleResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Regenerates trending articles shortly before they expire, most requested
+ * categories first, so readers never find a cold or stale category. Since
+ * every article has its own jittered TTL, running this regularly spreads the
+ * Gemini load over the day.
+ */
 @Service
 public class ArticlePreGenerationService {
 
     @Autowired
     private TrendingArticlesService trendingArticlesService;
 
-    private static final String[] ALL_CATEGORIES = {
-        "all", "tech", "finance", "lifestyle", "business", "health", 
-        "sports", "entertainment", "education", "science"
-    };
-
-    @Async
-    public CompletableFuture<Void> preGenerateArticlesForAllCategories() {
-        try {
-            System.out.println("Starting pre-generation of articles for all categories...");
-            
-            for (String category : ALL_CATEGORIES) {
-                try {
-                    System.out.println("Pre-generating articles for category: " + category);
-                    List<ArticleResponse> articles = trendingArticlesService.getTrendingArticles(category);
-                    System.out.println("Pre-generated " + articles.size() + " articles for category: " + category);
-                } catch (Exception e) {
-                    System.err.println("Error pre-generating articles for category " + category + ": " + e.getMessage());
-                }
-            }
-            
-            System.out.println("Completed pre-generation of articles for all categories");
-            return CompletableFuture.completedFuture(null);
-        } catch (Exception e) {
-            System.err.println("Error in pre-generation process: " + e.getMessage());
-            return CompletableFuture.completedFuture(null);
-        }
-    }
+    @Value("${app.trending.prebuild.enabled:true}")
+    private boolean enabled;
+
+    // Gemini calls the pre-build may have in flight at once, across all categories
+    @Value("${app.trending.prebuild.llm-budget:8}")
+    private int llmBudget;
+
+    // Articles expiring within this window are regenerated now; keep it longer than the cron interval
+    @Value("${app.trending.prebuild.lookahead-minutes:90}")
+    private long lookaheadMinutes;
+
+    @Value("${app.trending.parallelism:4}")
+    private int parallelism;
 
-    @Async
-    public CompletableFuture<Void> preGenerateArticlesForCategory(String category) {
-        try {
-            System.out.println("Pre-generating articles for category: " + category);
-            List<ArticleResponse> articles = trendingArticlesService.getTrendingArticles(category);
-            System.out.println("Pre-generated " + articles.size() + " articles for category: " + category);
-            return CompletableFuture.completedFuture(null);
-        } catch (Exception e) {
-            System.err.println("Error pre-generating articles for category " + category + ": " + e.getMessage());
-            return CompletableFuture.completedFuture(null);
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${app.trending.prebuild.cron:0 0 * * * *}")
+    public void refreshExpiringArticles() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
         }
+
+        List<String> categories = trendingArticlesService.getCategoriesByDemand();
+        Duration lookahead = Duration.ofMinutes(lookaheadMinutes);
+        int budget = Math.max(1, llmBudget);
+        int perCategory = Math.min(Math.max(1, parallelism), budget);
+        int concurrentCategories = Math.max(1, budget / perCategory);
+        System.out.println("Starting trending pre-generation for " + categories.size() + " categories in order: " + categories);
+
+        // flatMap subscribes in list order, so the hottest categories start (and usually finish) first
+        Flux.fromIterable(categories)
+            .flatMap(category -> trendingArticlesService.refreshExpiring(category, lookahead, perCategory)
+                .doOnNext(count -> System.out.println("Trending category " + category + " has " + count + " articles ready"))
+                .onErrorResume(e -> {
+                    System.err.println("Error pre-generating articles for category " + category + ": " + e.getMessage());
+                    return Mono.empty();
+                }), concurrentCategories)
+            .doFinally(signal -> {
+                running.set(false);
+                System.out.println("Completed trending pre-generation");
+            })
+            .subscribe();
     }
 }
-
@@ -1,20 +1,56 @@
 package com.article_generator.article_generator.service;
 
+import com.article_generator.article_generator.dto.ArticlePageResponse;
 import com.article_generator.article_generator.dto.ArticleResponse;
 import com.article_generator.article_generator.entity.Article;
 import com.article_generator.article_generator.repository.ArticleRepository;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ArticleService {
 
+    private static final int PREVIEW_LENGTH = 200;
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
     @Autowired(required = false)
     private ArticleRepository articleRepository;
 
+    @Autowired(required = false)
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.articles.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.articles.page.max-size:100}")
+    private int maxPageSize;
+
+    @Autowired
+    private ArticleWriteBehindService articleWriteBehindService;
+
     public void saveArticle(String userId, ArticleResponse articleResponse, String category) {
         // MongoDB not available - just log the action
         if (articleRepository == null) {
@@ -22,68 +58,185 @@ public class ArticleService {
             return;
         }
 
+        articleRepository.save(newArticle(userId, articleResponse, category));
+    }
+
+    /**
+     * Hands freshly generated articles to the write-behind queue and returns
+     * without waiting on Mongo. An id the article already carries is kept,
+     * otherwise one is assigned here and set on the response, so callers can
+     * return ids before the insert lands.
+     */
+    public void queueArticles(String userId, List<ArticleResponse> articleResponses, String category) {
+        for (ArticleResponse articleResponse : articleResponses) {
+            articleWriteBehindService.enqueue(newArticle(userId, articleResponse, category));
+        }
+    }
+
+    private Article newArticle(String userId, ArticleResponse articleResponse, String category) {
+        String id = articleResponse.getId() != null && ObjectId.isValid(articleResponse.getId())
+                ? articleResponse.getId()
+                : new ObjectId().toHexString();
+        articleResponse.setId(id);
+
         Article article = Article.builder()
+                .id(id)
                 .userId(userId)
                 .title(articleResponse.getTitle())
                 .subtitle(articleResponse.getSubtitle())
                 .content(articleResponse.getContent())
+                .preview(preview(articleResponse.getContent()))
+                .wordCount(wordCount(articleResponse.getContent()))
                 .category(category)
                 .isFavorite(false)
                 .build();
         
         article.onCreate();
-        articleRepository.save(article);
+        return article;
     }
 
-    public List<ArticleResponse> getUserArticles(String userId) {
-        // MongoDB not available - return empty list
-        if (articleRepository == null) {
-            return List.of();
+    public ArticlePageResponse getUserArticles(String userId, String cursor, Integer limit, boolean summary) {
+        return findPage(Criteria.where("userId").is(userId), cursor, limit, summary);
+    }
+
+    public ArticlePageResponse getUserFavorites(String userId, String cursor, Integer limit, boolean summary) {
+        return findPage(Criteria.where("userId").is(userId).and("isFavorite").is(true), cursor, limit, summary);
+    }
+
+    public ArticlePageResponse getUserArticlesByCategory(String userId, String category, String cursor, Integer limit, boolean summary) {
+        return findPage(Criteria.where("userId").is(userId).and("category").is(category), cursor, limit, summary);
+    }
+
+    /** The full article, content included, when it exists and belongs to the user. */
+    public Optional<ArticleResponse> getUserArticle(String articleId, String userId) {
+        // MongoDB not available - nothing to return
+        if (articleRepository == null || !ObjectId.isValid(articleId)) {
+            return Optional.empty();
         }
 
-        List<Article> articles = articleRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        return articles.stream()
-                .map(this::convertToArticleResponse)
-                .collect(Collectors.toList());
+        return articleRepository.findById(articleId)
+                .filter(article -> userId.equals(article.getUserId()))
+                .map(this::convertToArticleResponse);
     }
 
-    public List<ArticleResponse> getUserFavorites(String userId) {
-        // MongoDB not available - return empty list
-        if (articleRepository == null) {
-            return List.of();
+    /**
+     * Keyset pagination in (createdAt desc, id desc) order: each page starts
+     * strictly after the last article of the previous one, so a page costs
+     * the same however deep into the library it is. One extra row is read to
+     * know whether another page follows.
+     * A summary page leaves content out of the Mongo projection and returns
+     * the stored preview and word count instead.
+     */
+    private ArticlePageResponse findPage(Criteria filter, String cursor, Integer limit, boolean summary) {
+        // MongoDB not available - return empty page
+        if (mongoTemplate == null) {
+            return ArticlePageResponse.builder()
+                    .articles(List.of())
+                    .hasMore(false)
+                    .success(true)
+                    .build();
+        }
+
+        int pageSize = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+        if (cursor != null && !cursor.isBlank()) {
+            PageCursor after = PageCursor.decode(cursor);
+            filter.orOperator(
+                    Criteria.where("createdAt").lt(after.createdAt()),
+                    Criteria.where("createdAt").is(after.createdAt()).and("id").lt(after.id()));
         }
 
-        List<Article> articles = articleRepository.findByUserIdAndIsFavoriteTrueOrderByCreatedAtDesc(userId);
-        return articles.stream()
-                .map(this::convertToArticleResponse)
-                .collect(Collectors.toList());
+        Query query = new Query(filter)
+                .with(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))
+                .limit(pageSize + 1);
+        if (summary) {
+            query.fields().exclude("content");
+        }
+        List<Article> articles = mongoTemplate.find(query, Article.class);
+
+        boolean hasMore = articles.size() > pageSize;
+        List<Article> page = hasMore ? articles.subList(0, pageSize) : articles;
+        return ArticlePageResponse.builder()
+                .articles(page.stream()
+                        .map(summary ? this::convertToSummaryResponse : this::convertToArticleResponse)
+                        .collect(Collectors.toList()))
+                .nextCursor(hasMore ? PageCursor.of(page.get(page.size() - 1)).encode() : null)
+                .hasMore(hasMore)
+                .success(true)
+                .build();
     }
 
-    public List<ArticleResponse> getUserArticlesByCategory(String userId, String category) {
-        // MongoDB not available - return empty list
-        if (articleRepository == null) {
-            return List.of();
+    // Position of the last article on a page; sent to clients as URL-safe base64 so its shape stays private
+    private record PageCursor(LocalDateTime createdAt, ObjectId id) {
+
+        static PageCursor of(Article article) {
+            return new PageCursor(article.getCreatedAt(), new ObjectId(article.getId()));
         }
 
-        List<Article> articles = articleRepository.findByUserIdAndCategoryOrderByCreatedAtDesc(userId, category);
-        return articles.stream()
-                .map(this::convertToArticleResponse)
-                .collect(Collectors.toList());
+        static PageCursor decode(String token) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = decoded.indexOf('|');
+                return new PageCursor(
+                        LocalDateTime.parse(decoded.substring(0, separator)),
+                        new ObjectId(decoded.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid page cursor", e);
+            }
+        }
+
+        String encode() {
+            String raw = createdAt + "|" + id.toHexString();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
     }
 
-    public void toggleFavorite(String articleId, String userId) {
+    /**
+     * Flips the favorite flag in one findAndModify. The owner check is part of
+     * the filter, so another user's article (or a missing one) matches nothing.
+     * Returns the new flag, or empty when nothing matched.
+     */
+    public Optional<Boolean> toggleFavorite(String articleId, String userId) {
         // MongoDB not available - just log the action
-        if (articleRepository == null) {
+        if (mongoTemplate == null) {
             System.out.println("Toggle favorite (MongoDB not available): " + articleId);
-            return;
+            return Optional.empty();
         }
+        if (!ObjectId.isValid(articleId)) {
+            return Optional.empty();
+        }
+
+        // Pipeline update so the flip happens server-side; concurrent toggles each apply instead of overwriting
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("isFavorite").toValue(BooleanOperators.Not.not("isFavorite"))
+                .set("updatedAt").toValue(LocalDateTime.now());
+        Query query = ownedBy(articleId, userId);
+        query.fields().include("isFavorite");
 
-        Article article = articleRepository.findById(articleId).orElse(null);
-        if (article != null && article.getUserId().equals(userId)) {
-            article.setFavorite(!article.isFavorite());
-            article.onUpdate();
-            articleRepository.save(article);
+        Article updated = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Article.class);
+        return Optional.ofNullable(updated).map(Article::isFavorite);
+    }
+
+    // Returns false when the article does not exist or belongs to someone else
+    public boolean updateCategory(String articleId, String userId, String category) {
+        // MongoDB not available - just log the action
+        if (mongoTemplate == null) {
+            System.out.println("Update category (MongoDB not available): " + articleId);
+            return false;
+        }
+        if (!ObjectId.isValid(articleId)) {
+            return false;
         }
+
+        Update update = new Update()
+                .set("category", category)
+                .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.updateFirst(ownedBy(articleId, userId), update, Article.class).getMatchedCount() > 0;
+    }
+
+    // Mutations filter on id and owner together, so the ownership check costs no extra read
+    private static Query ownedBy(String articleId, String userId) {
+        return new Query(Criteria.where("id").is(new ObjectId(articleId)).and("userId").is(userId));
     }
 
     public void deleteUserArticles(String userId) {
@@ -110,4 +263,89 @@ public class ArticleService {
                 .category(article.getCategory())
                 .build();
     }
+
+    // Falls back to content when it was loaded; otherwise a not yet backfilled
+    // document leaves preview and wordCount out rather than reporting 0 words
+    private ArticleResponse convertToSummaryResponse(Article article) {
+        String preview = article.getPreview();
+        Integer wordCount = article.getWordCount();
+        if (article.getContent() != null) {
+            if (preview == null) {
+                preview = preview(article.getContent());
+            }
+            if (wordCount == null) {
+                wordCount = wordCount(article.getContent());
+            }
+        }
+        return convertToArticleResponse(article).toBuilder()
+                .content(null)
+                .preview(preview)
+                .wordCount(wordCount)
+                .build();
+    }
+
+    /**
+     * One-off backfill of preview and wordCount for articles saved before the
+     * fields existed. Runs in the background after startup; once every
+     * document has both fields the query matches nothing.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSummaryFields() {
+        if (mongoTemplate == null) {
+            return;
+        }
+
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("preview").exists(false),
+                Criteria.where("wordCount").exists(false)));
+        query.fields().include("content");
+
+        long updated = 0;
+        try (Stream<Article> missing = mongoTemplate.stream(query, Article.class)) {
+            BulkOperations bulk = null;
+            int batched = 0;
+            for (Article article : (Iterable<Article>) missing::iterator) {
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Article.class);
+                }
+                bulk.updateOne(Query.query(Criteria.where("id").is(article.getId())), new Update()
+                        .set("preview", preview(article.getContent()))
+                        .set("wordCount", wordCount(article.getContent())));
+                if (++batched == BACKFILL_BATCH_SIZE) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = null;
+                    batched = 0;
+                }
+            }
+            if (bulk != null) {
+                updated += bulk.execute().getModifiedCount();
+            }
+        } catch (Exception e) {
+            System.err.println("Article summary backfill failed: " + e.getMessage());
+        }
+        if (updated > 0) {
+            System.out.println("Backfilled preview and word count for " + updated + " articles");
+        }
+    }
+
+    // Opening text cut back to a word boundary, whitespace collapsed
+    static String preview(String content) {
+        if (content == null) {
+            return "";
+        }
+        String text = content.strip().replaceAll("\\s+", " ");
+        if (text.length() <= PREVIEW_LENGTH) {
+            return text;
+        }
+        int cut = text.lastIndexOf(' ', PREVIEW_LENGTH);
+        return text.substring(0, cut > 0 ? cut : PREVIEW_LENGTH) + "...";
+    }
+
+    static int wordCount(String content) {
+        if (content == null || content.isBlank()) {
+            return 0;
+        }
+        return content.strip().split("\\s+").length;
+    }
 }
@@ -0,0 +1,208 @@
+package com.article_generator.article_generator.service;
+
+import com.article_generator.article_generator.entity.Article;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind persistence for generated articles. Callers enqueue articles
+ * whose ids are already assigned and return immediately; a single writer
+ * thread inserts them in unordered bulk batches once a batch fills up or the
+ * flush interval passes. When the queue stays full past the offer timeout
+ * the caller writes its article itself, which slows producers down instead
+ * of dropping data. Whatever is queued at shutdown is flushed first.
+ */
+@Service
+public class ArticleWriteBehindService {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    @Autowired(required = false)
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.articles.write-behind.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.articles.write-behind.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${app.articles.write-behind.offer-timeout-ms:2000}")
+    private long offerTimeoutMs;
+
+    @Value("${app.articles.write-behind.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.articles.write-behind.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${app.articles.write-behind.shutdown-timeout-seconds:10}")
+    private long shutdownTimeoutSeconds;
+
+    private final BlockingQueue<Article> queue;
+    private Thread writer;
+    private volatile boolean running = true;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder callerWrites = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public ArticleWriteBehindService(@Value("${app.articles.write-behind.queue-capacity:1000}") int queueCapacity) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    // Started once the @Value settings are injected; the loop reads them on every pass
+    @PostConstruct
+    public void start() {
+        writer = new Thread(this::drainLoop, "article-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(shutdownTimeoutSeconds));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            System.err.println("Article write-behind shut down with " + queue.size() + " articles unwritten");
+        }
+    }
+
+    /**
+     * Queues an article for insertion. The article must already carry its id.
+     * Blocks for at most the offer timeout while the queue is full, then
+     * writes the article on the calling thread.
+     */
+    public void enqueue(Article article) {
+        // MongoDB not available - just log the action
+        if (mongoTemplate == null) {
+            System.out.println("Article saved (MongoDB not available): " + article.getTitle());
+            return;
+        }
+
+        enqueued.increment();
+        boolean queued = false;
+        if (running) {
+            try {
+                queued = queue.offer(article, offerTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!queued) {
+            callerWrites.increment();
+            write(List.of(article));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+            "queued", queue.size(),
+            "queueCapacity", queue.size() + queue.remainingCapacity(),
+            "enqueued", enqueued.sum(),
+            "written", written.sum(),
+            "batches", batches.sum(),
+            "callerWrites", callerWrites.sum(),
+            "failed", failed.sum()
+        );
+    }
+
+    private void drainLoop() {
+        List<Article> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Article first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Top the batch up until it is full or the first article has waited a full interval
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    Article next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                write(batch);
+            } catch (InterruptedException e) {
+                // Shutdown waits on this thread; keep draining rather than abandoning the queue
+                Thread.interrupted();
+            } catch (Exception e) {
+                System.err.println("Article write-behind error: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Article> batch) {
+        List<Article> pending = batch;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                mongoTemplate.bulkOps(BulkMode.UNORDERED, Article.class).insert(pending).execute();
+                batches.increment();
+                written.add(pending.size());
+                return;
+            } catch (BulkOperationException e) {
+                // Ids are assigned up front, so a duplicate key means an earlier attempt already stored that article
+                List<Article> attempted = pending;
+                List<Article> retry = e.getErrors().stream()
+                    .filter(error -> error.getCode() != DUPLICATE_KEY)
+                    .map(BulkWriteError::getIndex)
+                    .map(attempted::get)
+                    .toList();
+                batches.increment();
+                written.add(attempted.size() - retry.size());
+                pending = retry;
+                if (pending.isEmpty()) {
+                    return;
+                }
+            } catch (DataAccessException e) {
+                System.err.println("Error writing " + pending.size() + " articles (attempt " + attempt + "): " + e.getMessage());
+            }
+
+            if (attempt >= maxAttempts) {
+                failed.add(pending.size());
+                System.err.println("Giving up on " + pending.size() + " articles after " + attempt + " attempts");
+                return;
+            }
+            try {
+                Thread.sleep(retryBackoffMs * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.add(pending.size());
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.article_generator.article_generator.service;
+
+import com.article_generator.article_generator.dto.ArticleResponse;
+import com.article_generator.article_generator.entity.GenerationCacheEntry;
+import com.article_generator.article_generator.repository.GenerationCacheRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-tier cache for generated article sets: a size-bounded in-process LRU
+ * (L1) backed by a Mongo collection with a TTL index (L2). Entries are keyed
+ * on a hash of the normalized generation parameters.
+ */
+@Service
+public class GenerationCacheService {
+
+    @Autowired(required = false)
+    private GenerationCacheRepository generationCacheRepository;
+
+    @Value("${app.generation.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.generation.cache.l1-ttl-minutes:60}")
+    private long l1TtlMinutes;
+
+    @Value("${app.generation.cache.l2-ttl-hours:24}")
+    private long l2TtlHours;
+
+    private final Map<String, L1Entry> l1;
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record L1Entry(List<ArticleResponse> articles, Instant expiresAt) {}
+
+    public GenerationCacheService(@Value("${app.generation.cache.l1-max-entries:500}") int l1MaxEntries) {
+        // Access-ordered LinkedHashMap gives LRU eviction once the size bound is hit
+        this.l1 = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, L1Entry> eldest) {
+                boolean evict = size() > l1MaxEntries;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * Builds the cache key. Input is trimmed, lower-cased and whitespace
+     * collapsed so trivially different spellings of the same topic share an entry.
+     */
+    public static String fingerprint(String input, String length, String tone, String template, String category) {
+        String normalized = String.join("\u0000",
+            normalize(input).replaceAll("\\s+", " "),
+            normalize(length),
+            normalize(tone),
+            normalize(template),
+            normalize(category));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Optional<List<ArticleResponse>> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        L1Entry entry;
+        synchronized (l1) {
+            entry = l1.get(key);
+            if (entry != null && entry.expiresAt().isBefore(Instant.now())) {
+                l1.remove(key);
+                entry = null;
+            }
+        }
+        if (entry != null) {
+            l1Hits.increment();
+            return Optional.of(copyOf(entry.articles()));
+        }
+
+        if (generationCacheRepository != null) {
+            try {
+                Optional<GenerationCacheEntry> stored = generationCacheRepository.findById(key)
+                    // The TTL monitor only runs once a minute, so double-check expiry here
+                    .filter(e -> e.getExpiresAt() != null && e.getExpiresAt().isAfter(Instant.now()));
+                if (stored.isPresent()) {
+                    l2Hits.increment();
+                    putL1(key, stored.get().getArticles());
+                    return Optional.of(copyOf(stored.get().getArticles()));
+                }
+            } catch (Exception e) {
+                System.err.println("Error reading generation cache: " + e.getMessage());
+            }
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String key, List<ArticleResponse> articles) {
+        if (!enabled || articles.isEmpty()) {
+            return;
+        }
+
+        List<ArticleResponse> snapshot = copyOf(articles);
+        putL1(key, snapshot);
+
+        if (generationCacheRepository != null) {
+            try {
+                Instant now = Instant.now();
+                generationCacheRepository.save(GenerationCacheEntry.builder()
+                    .id(key)
+                    .articles(snapshot)
+                    .createdAt(now)
+                    .expiresAt(now.plus(Duration.ofHours(l2TtlHours)))
+                    .build());
+            } catch (Exception e) {
+                System.err.println("Error writing generation cache: " + e.getMessage());
+            }
+        }
+    }
+
+    public void recordBypass() {
+        bypasses.increment();
+    }
+
+    public Map<String, Object> getStats() {
+        int l1Size;
+        synchronized (l1) {
+            l1Size = l1.size();
+        }
+        return Map.of(
+            "enabled", enabled,
+            "l1Hits", l1Hits.sum(),
+            "l2Hits", l2Hits.sum(),
+            "misses", misses.sum(),
+            "bypasses", bypasses.sum(),
+            "l1Evictions", evictions.sum(),
+            "l1Size", l1Size
+        );
+    }
+
+    private void putL1(String key, List<ArticleResponse> articles) {
+        Instant expiresAt = Instant.now().plus(Duration.ofMinutes(l1TtlMinutes));
+        synchronized (l1) {
+            l1.put(key, new L1Entry(articles, expiresAt));
+        }
+    }
+
+    // Callers get their own copies; ArticleResponse is mutable and gets ids assigned on save
+    private static List<ArticleResponse> copyOf(List<ArticleResponse> articles) {
+        return articles.stream()
+            .map(article -> article.toBuilder().build())
+            .toList();
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,190 @@
+package com.article_generator.article_generator.service;
+
+import com.article_generator.article_generator.dto.ArticleGenerationRequest;
+import com.article_generator.article_generator.dto.ArticleResponse;
+import com.article_generator.article_generator.dto.GenerationJobResponse;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs article generation as background jobs so HTTP requests return
+ * immediately. Jobs wait in a bounded queue for a fixed pool of workers;
+ * once the queue is full, submit throws RejectedExecutionException and the
+ * caller is expected to back off.
+ */
+@Service
+public class GenerationJobService {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    @Autowired
+    private ArticleGenerationService articleGenerationService;
+
+    // How long finished jobs stay queryable before they are dropped
+    @Value("${app.generation.jobs.retention-minutes:30}")
+    private long retentionMinutes;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public GenerationJobService(@Value("${app.generation.jobs.workers:4}") int workers,
+                                @Value("${app.generation.jobs.queue-capacity:50}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            workers, workers,
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "generation-job-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public GenerationJobResponse submit(ArticleGenerationRequest request) {
+        Job job = new Job(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+        try {
+            job.future = executor.submit(() -> run(job, request));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+        return job.toResponse();
+    }
+
+    public Optional<GenerationJobResponse> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::toResponse);
+    }
+
+    public Optional<GenerationJobResponse> cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        if (job.finish(Status.CANCELLED, "Job cancelled")) {
+            Future<?> future = job.future;
+            if (future != null) {
+                // Interrupting the worker disposes the Gemini subscription it is blocked on
+                future.cancel(true);
+            }
+            executor.purge();
+        }
+        return Optional.of(job.toResponse());
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+            "activeWorkers", executor.getActiveCount(),
+            "queued", executor.getQueue().size(),
+            "queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity(),
+            "trackedJobs", jobs.size()
+        );
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(retentionMinutes));
+        jobs.values().removeIf(job -> job.completedAt != null && job.completedAt.isBefore(cutoff));
+    }
+
+    private void run(Job job, ArticleGenerationRequest request) {
+        synchronized (job) {
+            if (job.status != Status.QUEUED) {
+                return;
+            }
+            job.status = Status.RUNNING;
+        }
+
+        try {
+            ArticleGenerationService.Variants variants = articleGenerationService.articleVariants(
+                    request.getInput().trim(),
+                    request.getLength(),
+                    request.getTone(),
+                    request.getTemplate(),
+                    request.getCategory(),
+                    request.isFresh());
+            // The generation run stores its articles, also when this job is cancelled and others still share it
+            variants.articles()
+                .doOnNext(job::addArticle)
+                .blockLast();
+
+            job.finish(Status.COMPLETED, "Articles generated successfully");
+        } catch (Exception e) {
+            // A cancelled job has already been marked; finish() ignores the late failure
+            job.finish(Status.FAILED, "Error generating articles: " + e.getMessage());
+        }
+    }
+
+    private static class Job {
+        private final String id;
+        private final Instant createdAt = Instant.now();
+        private final List<ArticleResponse> articles = new ArrayList<>();
+        private volatile Future<?> future;
+        private Status status = Status.QUEUED;
+        private String message = "Job queued";
+        private Instant completedAt;
+
+        Job(String id) {
+            this.id = id;
+        }
+
+        synchronized void addArticle(ArticleResponse article) {
+            if (status == Status.RUNNING) {
+                articles.add(article);
+            }
+        }
+
+        synchronized List<ArticleResponse> articles() {
+            return List.copyOf(articles);
+        }
+
+        /** Moves the job to a terminal state; returns false when it already was in one. */
+        synchronized boolean finish(Status terminal, String finalMessage) {
+            if (status != Status.QUEUED && status != Status.RUNNING) {
+                return false;
+            }
+            status = terminal;
+            message = finalMessage;
+            completedAt = Instant.now();
+            return true;
+        }
+
+        synchronized GenerationJobResponse toResponse() {
+            return GenerationJobResponse.builder()
+                .jobId(id)
+                .status(status.name())
+                .articles(List.copyOf(articles))
+                .createdAt(createdAt.toString())
+                .completedAt(completedAt != null ? completedAt.toString() : null)
+                .message(status == Status.RUNNING ? "Generating articles" : message)
+                .success(status != Status.FAILED)
+                .build();
+        }
+    }
+}
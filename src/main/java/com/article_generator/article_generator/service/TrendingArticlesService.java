@@ -1,72 +1,806 @@
 package com.article_generator.article_generator.service;
 
+import com.article_generator.article_generator.client.GeminiClient;
 import com.article_generator.article_generator.dto.ArticleResponse;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.article_generator.article_generator.dto.TrendingStreamEvent;
+import com.article_generator.article_generator.entity.TrendingSnapshotEntry;
+import com.article_generator.article_generator.repository.TrendingSnapshotRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * Trending articles per category. Each category has one immutable snapshot
+ * in a concurrent map, made of per-topic slots that each carry their own
+ * generation time and jittered TTL. A rebuild regenerates only the slots
+ * that are due (expired, or failed last time) and keeps the rest, so spend
+ * and load are spread over the day instead of landing at one rollover.
+ *
+ * At most one rebuild per category runs at a time, and while it runs callers
+ * keep getting the previous snapshot (stale-while-revalidate). Only a cold
+ * category makes callers wait. A finished rebuild is swapped in whole with
+ * the next version number, so readers never see a partial list.
+ * Snapshots are also written to Mongo so restarts start warm.
+ * Only known categories are cached, and retained memory is kept under a
+ * configurable budget by evicting the least recently read categories.
+ */
 @Service
 public class TrendingArticlesService {
 
-    @Value("${spring.ai.google.ai.api-key}")
-    private String apiKey;
-    
-    @Value("${spring.ai.google.ai.model}")
-    private String modelName;
-    
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final RestTemplate restTemplate = new RestTemplate();
-    
-    // Cache for daily trending articles by category
-    private Map<String, List<ArticleResponse>> cachedTrendingArticles = new HashMap<>();
-    private Map<String, LocalDate> lastGeneratedDate = new HashMap<>();
+    // Trending articles target 800-1200 words
+    private static final int TRENDING_MAX_OUTPUT_TOKENS = 2560;
+
+    private static final int ARTICLES_PER_CATEGORY = 8;
+
+    private static final int MAX_TRACKED_REBUILDS = 100;
+
+    // Rebuild predicate that regenerates everything; rebuilds started with it are full rebuilds
+    private static final Predicate<Slot> EVERY_SLOT = slot -> true;
+
+    // Categories with their own topic list (see getTrendingTopics)
+    private static final List<String> CATEGORIES = List.of(
+        "all", "tech", "finance", "lifestyle", "business", "health",
+        "education", "entertainment", "travel", "food", "sports");
+
+    @Autowired
+    private GeminiClient geminiClient;
+
+    @Autowired(required = false)
+    private TrendingSnapshotRepository trendingSnapshotRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Approximate heap the cached snapshots and payloads may retain
+    @Value("${app.trending.max-memory-mb:64}")
+    private long maxMemoryMb;
+
+    // Keep a gzipped copy of each serialized payload for clients that accept it
+    @Value("${app.trending.gzip-enabled:true}")
+    private boolean gzipEnabled;
+
+    @Value("${app.trending.article-ttl-hours:24}")
+    private long articleTtlHours;
+
+    // Each article's TTL is shortened by a random amount up to this share, so slots drift apart
+    @Value("${app.trending.article-ttl-jitter-percent:25}")
+    private int articleTtlJitterPercent;
+
+    // After a failed article, wait this long before trying that slot again
+    @Value("${app.trending.failure-retry-minutes:5}")
+    private long failureRetryMinutes;
+
+    // Concurrent Gemini calls per category rebuild
+    @Value("${app.trending.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.trending.article-timeout-seconds:60}")
+    private long articleTimeoutSeconds;
+
+    // Version events a slow subscriber may fall behind by before the oldest are dropped
+    @Value("${app.trending.subscriber-buffer-size:32}")
+    private int subscriberBufferSize;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, Rebuild> rebuilds = new ConcurrentHashMap<>();
+    // Full rebuilds requested while a due-slots-only rebuild was running; at most one per category
+    private final Map<String, Rebuild> queuedFullRebuilds = new ConcurrentHashMap<>();
+    // Recently started rebuilds by id, so refresh callers can poll them; finished ones are slimmed down (see Rebuild.finished)
+    private final Map<String, Rebuild> recentRebuilds = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Rebuild> eldest) {
+            return size() > MAX_TRACKED_REBUILDS;
+        }
+    });
+    // Serialized /api/trending bodies, rebuilt only when the category's snapshot changes
+    private final Map<String, Payload> payloads = new ConcurrentHashMap<>();
+    // Requests per known category, decayed after each pre-build so recent demand dominates
+    private final Map<String, AtomicLong> demand = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastAccess = new ConcurrentHashMap<>();
+    private final LongAdder evictions = new LongAdder();
+
+    // Fan-out of version changes; best effort, so a subscriber that cannot keep up never blocks the others
+    private final Sinks.Many<TrendingStreamEvent> versionEvents = Sinks.many().multicast().directBestEffort();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final LongAdder droppedVersionEvents = new LongAdder();
+
+    /**
+     * One topic's article and its lifetime. article is null when generation
+     * failed and there was nothing to fall back on; expiresAt is then the
+     * time of the next attempt.
+     */
+    public record Slot(String topic, ArticleResponse article, Instant generatedAt, Instant expiresAt) {
+        boolean isDue(Instant at) {
+            return !at.isBefore(expiresAt);
+        }
+    }
+
+    /**
+     * One category's immutable slot list. articles are the filled slots in
+     * topic order, expiresAt is the earliest slot expiry, and version
+     * increases by one whenever the articles change.
+     */
+    public record Snapshot(List<Slot> slots, List<ArticleResponse> articles, LocalDate generatedDate, Instant expiresAt, long version) {
+        static Snapshot of(List<Slot> slots, LocalDate generatedDate) {
+            List<ArticleResponse> articles = slots.stream()
+                .map(Slot::article)
+                .filter(Objects::nonNull)
+                .toList();
+            Instant expiresAt = slots.stream()
+                .map(Slot::expiresAt)
+                .min(Comparator.naturalOrder())
+                .orElse(Instant.EPOCH);
+            return new Snapshot(List.copyOf(slots), articles, generatedDate, expiresAt, 0);
+        }
+
+        public boolean isFresh() {
+            return Instant.now().isBefore(expiresAt);
+        }
+
+        Snapshot withVersion(long newVersion) {
+            return new Snapshot(slots, articles, generatedDate, expiresAt, newVersion);
+        }
+
+        Snapshot withoutArticles() {
+            return new Snapshot(List.of(), List.of(), generatedDate, expiresAt, version);
+        }
+
+        // Rough retained size: UTF-16 string data plus fixed per-object overhead
+        long retainedBytes() {
+            long bytes = 64 + 48L * slots.size();
+            for (ArticleResponse article : articles) {
+                bytes += 96
+                    + stringBytes(article.getId())
+                    + stringBytes(article.getTitle())
+                    + stringBytes(article.getSubtitle())
+                    + stringBytes(article.getContent())
+                    + stringBytes(article.getAuthor())
+                    + stringBytes(article.getPublishedAt())
+                    + stringBytes(article.getMediumUrl())
+                    + stringBytes(article.getCategory());
+            }
+            return bytes;
+        }
+
+        private static long stringBytes(String value) {
+            return value == null ? 0 : 40 + 2L * value.length();
+        }
+    }
+
+    /**
+     * Serialized snapshot. Each encoding gets its own strong ETag since it is
+     * a different byte representation; gzipEtag is null when gzip is off.
+     */
+    public record Payload(Snapshot snapshot, byte[] json, byte[] gzip, String etag, String gzipEtag) {
+        long retainedBytes() {
+            return 64 + json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    /** A slot regenerated during a rebuild, at its 1-based topic position. */
+    public record SlotUpdate(int position, Slot slot) {}
+
+    /**
+     * A queued, running or finished rebuild. full rebuilds regenerate every
+     * slot; the others only the slots that are due. progress replays every
+     * slot it has generated so far and completes with the rebuild.
+     */
+    public record Rebuild(String id, String category, boolean full, Instant startedAt, CompletableFuture<Void> launched,
+                          CompletableFuture<Snapshot> result, Sinks.Many<SlotUpdate> progress) {
+        public String status() {
+            if (!launched.isDone()) {
+                return "queued";
+            }
+            if (!result.isDone()) {
+                return "running";
+            }
+            return result.isCompletedExceptionally() ? "failed" : "completed";
+        }
+
+        /**
+         * The finished rebuild as kept for status polling: no progress
+         * history, and a result that holds only the installed version
+         * instead of the snapshot's articles.
+         */
+        Rebuild finished() {
+            Sinks.Many<SlotUpdate> noProgress = Sinks.many().multicast().directBestEffort();
+            noProgress.tryEmitComplete();
+            CompletableFuture<Snapshot> outcome = result.isCompletedExceptionally()
+                ? result
+                : CompletableFuture.completedFuture(result.join().withoutArticles());
+            return new Rebuild(id, category, full, startedAt, launched, outcome, noProgress);
+        }
+    }
+
+    /**
+     * Loads the most recent persisted snapshot of each category so a restarted
+     * instance serves its articles without any Gemini calls. Slots that
+     * expired while the instance was down are regenerated on first read.
+     */
+    @PostConstruct
+    void hydrateFromStore() {
+        if (trendingSnapshotRepository == null) {
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            List<TrendingSnapshotEntry> stored = trendingSnapshotRepository.findByDateIn(
+                List.of(today.toString(), today.minusDays(1).toString()));
+            for (TrendingSnapshotEntry entry : stored) {
+                Snapshot snapshot = fromEntry(entry);
+                if (snapshot == null) {
+                    continue;
+                }
+                snapshots.merge(entry.getCategory(), snapshot,
+                    (current, candidate) -> candidate.generatedDate().isAfter(current.generatedDate()) ? candidate : current);
+            }
+            System.out.println("Hydrated trending snapshots for " + snapshots.size() + " categories");
+        } catch (Exception e) {
+            System.err.println("Error loading trending snapshots: " + e.getMessage());
+        }
+    }
 
     public List<ArticleResponse> getTrendingArticles(String category) {
-        LocalDate today = LocalDate.now();
-        
-        // Return cached articles if they were generated today for this category
-        if (lastGeneratedDate.containsKey(category) && 
-            lastGeneratedDate.get(category).equals(today) && 
-            cachedTrendingArticles.containsKey(category) && 
-            !cachedTrendingArticles.get(category).isEmpty()) {
-            return cachedTrendingArticles.get(category);
+        return getTrendingSnapshot(category).articles();
+    }
+
+    /** The category's current snapshot; stale ones are served while their due slots are rebuilt. */
+    public Snapshot getTrendingSnapshot(String category) {
+        category = resolveCategory(category);
+        recordAccess(category);
+
+        Snapshot snapshot = snapshots.get(category);
+        if (snapshot == null) {
+            // Evicted (or never loaded) but possibly still in Mongo from earlier today
+            snapshot = loadStored(category);
         }
-        
-        // Generate new trending articles for this category
-        List<ArticleResponse> articles = generateTrendingArticles(category);
-        cachedTrendingArticles.put(category, articles);
-        lastGeneratedDate.put(category, today);
-        
-        return articles;
+        if (snapshot != null) {
+            if (!snapshot.isFresh()) {
+                // Serve the current list right away; the due slots are regenerated in the background
+                rebuild(category, slot -> slot.isDue(Instant.now()), parallelism);
+            }
+            return snapshot;
+        }
+
+        // Cold category: every concurrent caller waits on the same rebuild
+        return rebuild(category, EVERY_SLOT, parallelism).result().join();
     }
 
-    private List<ArticleResponse> generateTrendingArticles(String category) {
-        List<ArticleResponse> articles = new ArrayList<>();
-        
-        // Get current trending topics for the category
-        List<String> trendingTopics = getTrendingTopics(category);
-        
-        for (int i = 0; i < Math.min(8, trendingTopics.size()); i++) {
-            try {
-                ArticleResponse article = generateTrendingArticle(trendingTopics.get(i), category, i + 1);
+    /**
+     * The category's current snapshot as ready-to-send bytes. Serialization
+     * happens once per snapshot version, not once per request.
+     */
+    public Payload getTrendingPayload(String category) {
+        category = resolveCategory(category);
+        Snapshot snapshot = getTrendingSnapshot(category);
+        Payload payload = payloads.get(category);
+        if (payload != null && payload.snapshot() == snapshot) {
+            return payload;
+        }
+        payload = serialize(category, snapshot);
+        payloads.put(category, payload);
+        enforceMemoryBudget(category);
+        return payload;
+    }
+
+    private void recordAccess(String category) {
+        demand.computeIfAbsent(category, k -> new AtomicLong()).incrementAndGet();
+        lastAccess.put(category, System.nanoTime());
+    }
+
+    /** Maps the requested category onto a known one; anything unknown shares the "all" entry. */
+    public String resolveCategory(String category) {
+        String normalized = category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+        return CATEGORIES.contains(normalized) ? normalized : "all";
+    }
+
+    public Map<String, Object> getStats() {
+        long failedSlots = snapshots.values().stream()
+            .flatMap(snapshot -> snapshot.slots().stream())
+            .filter(slot -> slot.article() == null)
+            .count();
+        return Map.of(
+            "entries", snapshots.size(),
+            "failedSlots", failedSlots,
+            "payloadEntries", payloads.size(),
+            "retainedBytes", retainedBytes(),
+            "maxBytes", maxMemoryMb * 1024 * 1024,
+            "evictions", evictions.sum(),
+            "rebuildsRunning", rebuilds.size(),
+            "rebuildsQueued", queuedFullRebuilds.size(),
+            "subscribers", subscribers.get(),
+            "droppedVersionEvents", droppedVersionEvents.sum()
+        );
+    }
+
+    private long retainedBytes() {
+        long bytes = 0;
+        for (Snapshot snapshot : snapshots.values()) {
+            bytes += snapshot.retainedBytes();
+        }
+        for (Payload payload : payloads.values()) {
+            bytes += payload.retainedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Evicts least recently read categories until retained bytes fit the
+     * budget. A category's serialized payload goes first since it is rebuilt
+     * from the snapshot for free; the snapshot itself can be reloaded from
+     * Mongo. The category being served stays.
+     */
+    private void enforceMemoryBudget(String keep) {
+        long maxBytes = maxMemoryMb * 1024 * 1024;
+        long total = retainedBytes();
+        while (total > maxBytes) {
+            String victim = null;
+            long oldest = Long.MAX_VALUE;
+            for (String category : CATEGORIES) {
+                if (category.equals(keep) || !snapshots.containsKey(category) && !payloads.containsKey(category)) {
+                    continue;
+                }
+                long accessed = lastAccess.getOrDefault(category, Long.MIN_VALUE);
+                if (victim == null || accessed < oldest) {
+                    victim = category;
+                    oldest = accessed;
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+            if (payloads.remove(victim) == null) {
+                snapshots.remove(victim);
+            }
+            evictions.increment();
+            total = retainedBytes();
+        }
+    }
+
+    // Like hydrateFromStore, also looks at yesterday's entry: slots keep their own TTLs across midnight
+    private Snapshot loadStored(String category) {
+        if (trendingSnapshotRepository == null) {
+            return null;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            for (LocalDate date : List.of(today, today.minusDays(1))) {
+                Optional<Snapshot> stored = trendingSnapshotRepository.findById(category + ":" + date)
+                    .map(this::fromEntry);
+                if (stored.isPresent()) {
+                    return install(category, stored.get());
+                }
+            }
+            return null;
+        } catch (Exception e) {
+            System.err.println("Error loading trending snapshot for " + category + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private Snapshot fromEntry(TrendingSnapshotEntry entry) {
+        if (entry.getSlots() == null || entry.getSlots().isEmpty()) {
+            return null;
+        }
+        List<Slot> slots = entry.getSlots().stream()
+            .map(stored -> new Slot(stored.getTopic(), stored.getArticle(), stored.getGeneratedAt(), stored.getExpiresAt()))
+            .toList();
+        // Entries written before versions were stored read back as 0
+        return Snapshot.of(slots, LocalDate.parse(entry.getDate())).withVersion(Math.max(1, entry.getVersion()));
+    }
+
+    private Payload serialize(String category, Snapshot snapshot) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("articles", snapshot.articles());
+        body.put("success", true);
+        body.put("message", "Trending articles retrieved successfully");
+        body.put("count", snapshot.articles().size());
+        body.put("category", category);
+        body.put("version", snapshot.version());
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            byte[] gzip = null;
+            if (gzipEnabled) {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 3);
+                try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                    out.write(json);
+                }
+                gzip = buffer.toByteArray();
+            }
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            String tag = HexFormat.of().formatHex(hash, 0, 16);
+            return new Payload(snapshot, json, gzip, "\"" + tag + "\"", gzip != null ? "\"" + tag + "-gzip\"" : null);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not serialize trending articles for " + category, e);
+        }
+    }
+
+    /**
+     * Forces every slot of the category to be regenerated, even fresh ones.
+     * Joins a full rebuild that is already running. When only due slots are
+     * being rebuilt, a full rebuild is queued to start once that one is done
+     * (repeated refreshes share the queued one). Readers keep getting the
+     * current snapshot until it completes.
+     */
+    public Rebuild refresh(String category) {
+        String resolved = resolveCategory(category);
+        Rebuild rebuild = rebuild(resolved, EVERY_SLOT, parallelism);
+        if (rebuild.full()) {
+            return rebuild;
+        }
+
+        Rebuild queued = queuedFullRebuilds.computeIfAbsent(resolved, k -> {
+            Rebuild followUp = newRebuild(k, true);
+            track(followUp);
+            return followUp;
+        });
+        // The running rebuild may have finished before the queued one became visible to it
+        launchQueuedFullRebuild(resolved);
+        return queued;
+    }
+
+    /**
+     * Streams the category progressively: every article already held is sent
+     * at once, then each regenerated article as soon as Gemini returns it,
+     * and finally a summary with the installed snapshot's version. Nothing
+     * is waited on when the category is fresh.
+     */
+    public Flux<TrendingStreamEvent> streamTrending(String category) {
+        String resolved = resolveCategory(category);
+        recordAccess(resolved);
+
+        Snapshot snapshot = snapshots.get(resolved);
+        if (snapshot == null) {
+            snapshot = loadStored(resolved);
+        }
+
+        List<TrendingStreamEvent> cached = new ArrayList<>();
+        if (snapshot != null) {
+            for (int i = 0; i < snapshot.slots().size(); i++) {
+                ArticleResponse article = snapshot.slots().get(i).article();
                 if (article != null) {
-                    articles.add(article);
+                    cached.add(articleEvent(i + 1, article, true));
                 }
-            } catch (Exception e) {
-                System.err.println("Error generating trending article " + (i + 1) + " for category " + category + ": " + e.getMessage());
+            }
+            if (snapshot.isFresh()) {
+                return Flux.fromIterable(cached).concatWith(Mono.just(summaryEvent(resolved, snapshot)));
             }
         }
-        
-        return articles;
+
+        Rebuild rebuild = snapshot != null
+            ? rebuild(resolved, slot -> slot.isDue(Instant.now()), parallelism)
+            : rebuild(resolved, EVERY_SLOT, parallelism);
+
+        Flux<TrendingStreamEvent> generated = rebuild.progress().asFlux()
+            .filter(update -> update.slot().article() != null && update.slot().generatedAt() != null
+                && !update.slot().generatedAt().isBefore(rebuild.startedAt()))
+            .map(update -> articleEvent(update.position(), update.slot().article(), false));
+
+        return Flux.fromIterable(cached)
+            .concatWith(generated)
+            .concatWith(Mono.fromFuture(rebuild.result(), true).map(result -> summaryEvent(resolved, result)))
+            .onErrorResume(e -> {
+                System.err.println("Error streaming trending articles for " + resolved + ": " + e.getMessage());
+                return Mono.just(TrendingStreamEvent.builder()
+                    .type("error")
+                    .category(resolved)
+                    .message("Failed to refresh trending articles")
+                    .build());
+            });
+    }
+
+    /**
+     * Version-change notifications for the given categories (unknown names
+     * resolve as usual), starting with each category's current version.
+     * Every subscription gets its own bounded buffer that drops the oldest
+     * events when the client is too slow; a dropped notification is harmless
+     * since the next one carries the latest version anyway.
+     */
+    public Flux<TrendingStreamEvent> subscribeToVersions(Collection<String> categories) {
+        Set<String> resolved = new LinkedHashSet<>();
+        for (String category : categories) {
+            resolved.add(resolveCategory(category));
+        }
+
+        List<TrendingStreamEvent> current = new ArrayList<>();
+        for (String category : resolved) {
+            Snapshot snapshot = snapshots.get(category);
+            if (snapshot != null) {
+                current.add(versionEvent(category, snapshot));
+            }
+        }
+
+        return versionEvents.asFlux()
+            .filter(event -> resolved.contains(event.getCategory()))
+            .startWith(current)
+            .onBackpressureBuffer(Math.max(1, subscriberBufferSize),
+                dropped -> droppedVersionEvents.increment(), BufferOverflowStrategy.DROP_OLDEST)
+            .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+            .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    private static TrendingStreamEvent versionEvent(String category, Snapshot snapshot) {
+        return TrendingStreamEvent.builder()
+            .type("version")
+            .category(category)
+            .count(snapshot.articles().size())
+            .version(snapshot.version())
+            .build();
+    }
+
+    private static TrendingStreamEvent articleEvent(int position, ArticleResponse article, boolean cached) {
+        return TrendingStreamEvent.builder()
+            .type("article")
+            .position(position)
+            .cached(cached)
+            .article(article)
+            .build();
+    }
+
+    private static TrendingStreamEvent summaryEvent(String category, Snapshot snapshot) {
+        return TrendingStreamEvent.builder()
+            .type("summary")
+            .category(category)
+            .count(snapshot.articles().size())
+            .version(snapshot.version())
+            .build();
+    }
+
+    public Optional<Rebuild> getRebuild(String rebuildId) {
+        return Optional.ofNullable(recentRebuilds.get(rebuildId));
+    }
+
+    public List<String> getCategories() {
+        return CATEGORIES;
+    }
+
+    /** Known categories, most requested first. Decays the counts afterwards so old demand fades. */
+    public List<String> getCategoriesByDemand() {
+        List<String> ordered = CATEGORIES.stream()
+            .sorted(Comparator.comparingLong((String category) ->
+                demand.getOrDefault(category, new AtomicLong()).get()).reversed())
+            .toList();
+        demand.values().forEach(count -> count.updateAndGet(value -> value - value / 8));
+        return ordered;
+    }
+
+    /**
+     * Regenerates the category's slots that will be due within the lookahead,
+     * with at most the given number of concurrent Gemini calls, so readers
+     * find them fresh. Cold categories are built in full. Emits the number of
+     * articles generated or kept.
+     */
+    public Mono<Integer> refreshExpiring(String category, Duration lookahead, int maxConcurrency) {
+        Rebuild rebuild = rebuild(category, slot -> slot.isDue(Instant.now().plus(lookahead)), maxConcurrency);
+        return Mono.fromFuture(rebuild.result(), true)
+            .map(snapshot -> snapshot.articles().size());
+    }
+
+    /**
+     * Starts a rebuild of the slots matching needsRefresh (plus any missing
+     * ones) unless one is already running for the category, and returns it.
+     * Passing EVERY_SLOT makes it a full rebuild.
+     */
+    private Rebuild rebuild(String category, Predicate<Slot> needsRefresh, int maxConcurrency) {
+        Rebuild rebuild = newRebuild(category, needsRefresh == EVERY_SLOT);
+        Rebuild running = rebuilds.putIfAbsent(category, rebuild);
+        if (running != null) {
+            return running;
+        }
+        track(rebuild);
+        launch(rebuild, needsRefresh, maxConcurrency);
+        return rebuild;
+    }
+
+    // Once finished, the polled copy no longer pins the slot updates and articles; streams already holding it still do
+    private void track(Rebuild rebuild) {
+        recentRebuilds.put(rebuild.id(), rebuild);
+        rebuild.result().whenComplete((snapshot, error) ->
+            recentRebuilds.replace(rebuild.id(), rebuild, rebuild.finished()));
+    }
+
+    private Rebuild newRebuild(String category, boolean full) {
+        return new Rebuild(UUID.randomUUID().toString(), category, full, Instant.now(), new CompletableFuture<>(),
+            new CompletableFuture<>(), Sinks.many().replay().all());
+    }
+
+    // The rebuild must already be registered in rebuilds for its category
+    private void launch(Rebuild rebuild, Predicate<Slot> needsRefresh, int maxConcurrency) {
+        String category = rebuild.category();
+        rebuild.launched().complete(null);
+        System.out.println("Rebuilding trending articles for category: " + category);
+        // An evicted category is reloaded first, so fresh slots are kept and the version continues from the stored one
+        Snapshot cached = snapshots.get(category);
+        Mono<Optional<Snapshot>> base = cached != null
+            ? Mono.just(Optional.of(cached))
+            : Mono.fromCallable(() -> Optional.ofNullable(loadStored(category))).subscribeOn(Schedulers.boundedElastic());
+        base
+            .flatMap(previous -> refreshSlots(category, previous.orElse(null), needsRefresh, maxConcurrency, rebuild)
+                .map(slots -> storeSnapshot(category, slots, previous.orElse(null))))
+            // Deregistered before the result completes, so a refresh issued on completion starts a new rebuild
+            .doOnTerminate(() -> {
+                rebuilds.remove(category, rebuild);
+                synchronized (rebuild.progress()) {
+                    rebuild.progress().tryEmitComplete();
+                }
+                launchQueuedFullRebuild(category);
+            })
+            .subscribe(rebuild.result()::complete, rebuild.result()::completeExceptionally);
+    }
+
+    private void launchQueuedFullRebuild(String category) {
+        Rebuild queued = queuedFullRebuilds.get(category);
+        if (queued == null) {
+            return;
+        }
+        Rebuild running = rebuilds.putIfAbsent(category, queued);
+        if (running == null) {
+            queuedFullRebuilds.remove(category, queued);
+            launch(queued, EVERY_SLOT, parallelism);
+        } else if (running.full()) {
+            // Someone else started a full rebuild in the meantime; the queued one finishes with it
+            queuedFullRebuilds.remove(category, queued);
+            queued.launched().complete(null);
+            running.result().whenComplete((snapshot, error) -> {
+                if (error != null) {
+                    queued.result().completeExceptionally(error);
+                } else {
+                    queued.result().complete(snapshot);
+                }
+                synchronized (queued.progress()) {
+                    queued.progress().tryEmitComplete();
+                }
+            });
+        }
+        // Otherwise another due-slots rebuild got in first; its completion launches the queued one
+    }
+
+    private Mono<List<Slot>> refreshSlots(String category, Snapshot current, Predicate<Slot> needsRefresh, int maxConcurrency, Rebuild rebuild) {
+        List<String> topics = getTrendingTopics(category);
+        int count = Math.min(ARTICLES_PER_CATEGORY, topics.size());
+
+        List<Slot> existing = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Slot slot = current != null && i < current.slots().size() ? current.slots().get(i) : null;
+            // A slot whose topic changed is treated as missing
+            existing.add(slot != null && slot.topic().equals(topics.get(i)) ? slot : null);
+        }
+
+        // Due slots are generated concurrently; the result keeps topic order
+        return Flux.range(0, count)
+            .flatMapSequential(i -> {
+                Slot slot = existing.get(i);
+                return slot != null && !needsRefresh.test(slot)
+                    ? Mono.just(slot)
+                    : generateSlot(topics.get(i), category, i + 1, slot)
+                        // Published as each article finishes, not in topic order; generations run concurrently
+                        .doOnNext(generated -> {
+                            synchronized (rebuild.progress()) {
+                                rebuild.progress().tryEmitNext(new SlotUpdate(i + 1, generated));
+                            }
+                        });
+            }, Math.max(1, maxConcurrency))
+            .collectList();
+    }
+
+    private Mono<Slot> generateSlot(String topic, String category, int articleNumber, Slot previous) {
+        return generateTrendingArticle(topic, category, articleNumber)
+            .map(article -> {
+                Instant now = Instant.now();
+                return new Slot(topic, article, now, now.plus(articleTtl()));
+            })
+            // On failure keep serving the previous article, if any, and retry the slot after a short back-off
+            .switchIfEmpty(Mono.fromSupplier(() -> new Slot(
+                topic,
+                previous != null ? previous.article() : null,
+                previous != null ? previous.generatedAt() : null,
+                Instant.now().plus(Duration.ofMinutes(failureRetryMinutes)))));
+    }
+
+    private Duration articleTtl() {
+        long ttlSeconds = Duration.ofHours(articleTtlHours).toSeconds();
+        long maxJitter = ttlSeconds * Math.max(0, Math.min(articleTtlJitterPercent, 100)) / 100;
+        return Duration.ofSeconds(ttlSeconds - (maxJitter > 0 ? ThreadLocalRandom.current().nextLong(maxJitter) : 0));
+    }
+
+    private Snapshot storeSnapshot(String category, List<Slot> slots, Snapshot base) {
+        Snapshot snapshot = install(category, Snapshot.of(slots, LocalDate.now()), base);
+        Schedulers.boundedElastic().schedule(() -> persist(category, snapshot));
+        enforceMemoryBudget(category);
+        return snapshot;
+    }
+
+    private Snapshot install(String category, Snapshot snapshot) {
+        return install(category, snapshot, null);
+    }
+
+    /**
+     * Atomic swap: the complete new list replaces the old one; the version
+     * moves only if articles changed. base is the snapshot the rebuild
+     * started from, compared against when the category was evicted meanwhile.
+     */
+    private Snapshot install(String category, Snapshot snapshot, Snapshot base) {
+        AtomicLong previousVersion = new AtomicLong();
+        Snapshot installed = snapshots.compute(category, (k, current) -> {
+            Snapshot previous = current != null ? current : base;
+            if (previous == null) {
+                // A snapshot loaded from the store keeps its stored version
+                return snapshot.withVersion(Math.max(1, snapshot.version()));
+            }
+            previousVersion.set(previous.version());
+            return snapshot.withVersion(sameArticles(previous, snapshot) ? previous.version() : previous.version() + 1);
+        });
+        if (installed.version() != previousVersion.get()) {
+            // Emitted outside compute(); the sink is not safe for concurrent emitters
+            synchronized (versionEvents) {
+                versionEvents.tryEmitNext(versionEvent(category, installed));
+            }
+        }
+        return installed;
+    }
+
+    private static boolean sameArticles(Snapshot a, Snapshot b) {
+        if (a.articles().size() != b.articles().size()) {
+            return false;
+        }
+        for (int i = 0; i < a.articles().size(); i++) {
+            if (a.articles().get(i) != b.articles().get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void persist(String category, Snapshot snapshot) {
+        if (trendingSnapshotRepository == null) {
+            return;
+        }
+        try {
+            String date = snapshot.generatedDate().toString();
+            trendingSnapshotRepository.save(TrendingSnapshotEntry.builder()
+                .id(category + ":" + date)
+                .date(date)
+                .category(category)
+                .slots(snapshot.slots().stream()
+                    .map(slot -> TrendingSnapshotEntry.Slot.builder()
+                        .topic(slot.topic())
+                        .article(slot.article())
+                        .generatedAt(slot.generatedAt())
+                        .expiresAt(slot.expiresAt())
+                        .build())
+                    .toList())
+                .expiresAt(snapshot.expiresAt())
+                .version(snapshot.version())
+                .createdAt(Instant.now())
+                .build());
+        } catch (Exception e) {
+            System.err.println("Error saving trending snapshot for " + category + ": " + e.getMessage());
+        }
     }
 
     private List<String> getTrendingTopics(String category) {
@@ -202,189 +936,82 @@ public class TrendingArticlesService {
         return categoryTopics.getOrDefault(category, categoryTopics.get("all"));
     }
 
-    private ArticleResponse generateTrendingArticle(String topic, String category, int articleNumber) {
-        try {
-            String categoryContext = getCategoryContext(category);
-            
-            String prompt = String.format("""
-                You are a real person who just discovered something important about: "%s"
-                
-                CATEGORY CONTEXT: %s
-                
-                WRITE LIKE A REAL HUMAN WHO JUST LEARNED SOMETHING:
-                - You're genuinely excited to share what you learned
-                - You're writing to friends who might benefit from this
-                - You have personal experience with this topic
-                - You're not trying to be perfect or professional
-                - You're being honest about your mistakes and learnings
-                
-                HUMAN WRITING STYLE:
-                - Use natural language and contractions (I'm, you're, don't, can't)
-                - Include personal stories and real experiences
-                - Use "honestly", "I mean", "you know", "like", "so"
-                - Include uncertainty sometimes ("I think", "maybe", "not sure")
-                - Use varied sentence lengths - some short, some long
-                - Include natural pauses and thoughts
-                - Write like you're talking, not like you're writing a report
-                
-                CONTENT REQUIREMENTS:
-                - Word count: 800-1200 words
-                - Share your genuine thoughts and opinions
-                - Include what you learned the hard way
-                - Be honest about what worked and what didn't
-                - Include specific details from your experience
-                - Make it relatable to regular people
-                - Focus on the %s category but keep it human
-                
-                AVOID AI PATTERNS:
-                - No overly perfect structure
-                - No generic advice
-                - No corporate language
-                - No artificial enthusiasm
-                - No perfect grammar everywhere
-                - No robotic transitions
-                
-                MAKE IT SOUND REAL:
-                - Include personal quirks and opinions
-                - Use real-world examples from your life
-                - Include some uncertainty or "I'm still figuring this out"
-                - Use natural emphasis and casual language
-                - Include personal struggles or mistakes
-                - Sound like a friend sharing advice
-                
-                FORMATTING:
-                - Use natural headings (not ALL CAPS)
-                - Use dashes (-) for lists
-                - NO markdown symbols
-                - Write like a real person would
-                
-                Format as JSON:
-                {
-                    "title": "Natural title that sounds like you wrote it",
-                    "subtitle": "Genuine subtitle from your perspective", 
-                    "content": "Your article written like a real person sharing real experience"
-                }
-                """, topic, categoryContext, category);
-
-            String response = callGoogleAI(prompt);
-            System.out.println("Trending article " + articleNumber + " response: " + response);
-            
-            ArticleResponse article = parseArticleFromResponse(response);
-            if (article != null) {
-                article.setAuthor("Alex K.");
-                article.setPublishedAt(java.time.LocalDateTime.now().toString());
-                article.setAiDetected(false);
-                article.setAiScore(0.0);
-            }
-            
-            return article;
-            
-        } catch (Exception e) {
-            System.err.println("Error generating trending article: " + e.getMessage());
-            e.printStackTrace();
-            return null;
-        }
-    }
-
-    private String callGoogleAI(String prompt) {
-        try {
-            String url = "https://generativelanguage.googleapis.com/v1beta/models/" + modelName + ":generateContent?key=" + apiKey;
+    private Mono<ArticleResponse> generateTrendingArticle(String topic, String category, int articleNumber) {
+        String categoryContext = getCategoryContext(category);
             
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Content-Type", "application/json");
+        String prompt = String.format("""
+            You are a real person who just discovered something important about: "%s"
             
-            Map<String, Object> requestBody = new HashMap<>();
-            Map<String, Object> content = new HashMap<>();
-            Map<String, Object> part = new HashMap<>();
-            part.put("text", prompt);
-            content.put("parts", new Object[]{part});
-            requestBody.put("contents", new Object[]{content});
+            CATEGORY CONTEXT: %s
             
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+            WRITE LIKE A REAL HUMAN WHO JUST LEARNED SOMETHING:
+            - You're genuinely excited to share what you learned
+            - You're writing to friends who might benefit from this
+            - You have personal experience with this topic
+            - You're not trying to be perfect or professional
+            - You're being honest about your mistakes and learnings
             
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                url, 
-                HttpMethod.POST, 
-                entity, 
-                (Class<Map<String, Object>>) (Class<?>) Map.class
-            );
+            HUMAN WRITING STYLE:
+            - Use natural language and contractions (I'm, you're, don't, can't)
+            - Include personal stories and real experiences
+            - Use "honestly", "I mean", "you know", "like", "so"
+            - Include uncertainty sometimes ("I think", "maybe", "not sure")
+            - Use varied sentence lengths - some short, some long
+            - Include natural pauses and thoughts
+            - Write like you're talking, not like you're writing a report
             
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                Map<String, Object> responseBody = response.getBody();
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> candidates = (List<Map<String, Object>>) responseBody.get("candidates");
-                if (candidates != null && !candidates.isEmpty()) {
-                    Map<String, Object> candidate = candidates.get(0);
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> contentMap = (Map<String, Object>) candidate.get("content");
-                    if (contentMap != null) {
-                        @SuppressWarnings("unchecked")
-                        List<Map<String, Object>> parts = (List<Map<String, Object>>) contentMap.get("parts");
-                        if (parts != null && !parts.isEmpty()) {
-                            return (String) parts.get(0).get("text");
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error calling Gemini API: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return null;
-    }
-
-    private ArticleResponse parseArticleFromResponse(String response) {
-        try {
-            if (response == null || response.trim().isEmpty()) {
-                return null;
-            }
+            CONTENT REQUIREMENTS:
+            - Word count: 800-1200 words
+            - Share your genuine thoughts and opinions
+            - Include what you learned the hard way
+            - Be honest about what worked and what didn't
+            - Include specific details from your experience
+            - Make it relatable to regular people
+            - Focus on the %s category but keep it human
             
-            String jsonResponse = extractJsonFromResponse(response);
-            if (jsonResponse == null) {
-                return null;
-            }
+            AVOID AI PATTERNS:
+            - No overly perfect structure
+            - No generic advice
+            - No corporate language
+            - No artificial enthusiasm
+            - No perfect grammar everywhere
+            - No robotic transitions
             
-            JsonNode jsonNode = objectMapper.readTree(jsonResponse);
+            MAKE IT SOUND REAL:
+            - Include personal quirks and opinions
+            - Use real-world examples from your life
+            - Include some uncertainty or "I'm still figuring this out"
+            - Use natural emphasis and casual language
+            - Include personal struggles or mistakes
+            - Sound like a friend sharing advice
             
-            String title = jsonNode.get("title") != null ? jsonNode.get("title").asText() : null;
-            String subtitle = jsonNode.get("subtitle") != null ? jsonNode.get("subtitle").asText() : null;
-            String content = jsonNode.get("content") != null ? jsonNode.get("content").asText() : null;
+            FORMATTING:
+            - Use natural headings (not ALL CAPS)
+            - Use dashes (-) for lists
+            - NO markdown symbols
+            - Write like a real person would
             
-            if (title != null && subtitle != null && content != null) {
-                return ArticleResponse.builder()
-                    .title(title)
-                    .subtitle(subtitle)
-                    .content(content)
-                    .author("Alex K.")
-                    .publishedAt(java.time.LocalDateTime.now().toString())
-                    .aiDetected(false)
-                    .aiScore(0.0)
-                    .build();
+            Format as JSON:
+            {
+                "title": "Natural title that sounds like you wrote it",
+                "subtitle": "Genuine subtitle from your perspective", 
+                "content": "Your article written like a real person sharing real experience"
             }
-        } catch (Exception e) {
-            System.err.println("Error parsing trending article response: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return null;
-    }
+            """, topic, categoryContext, category);
 
-    private String extractJsonFromResponse(String response) {
-        try {
-            if (response == null || response.trim().isEmpty()) {
-                return null;
-            }
-            
-            int startIndex = response.indexOf("{");
-            int endIndex = response.lastIndexOf("}");
-            
-            if (startIndex != -1 && endIndex != -1 && endIndex > startIndex) {
-                return response.substring(startIndex, endIndex + 1);
-            }
-        } catch (Exception e) {
-            System.err.println("Error extracting JSON from response: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return null;
+        return geminiClient.generateArticle(prompt, TRENDING_MAX_OUTPUT_TOKENS)
+            .doOnNext(article -> {
+                System.out.println("Trending article " + articleNumber + " generated: " + article.getTitle());
+                article.setAuthor("Alex K.");
+                article.setPublishedAt(java.time.LocalDateTime.now().toString());
+                article.setAiDetected(false);
+                article.setAiScore(0.0);
+            })
+            .timeout(Duration.ofSeconds(articleTimeoutSeconds))
+            .onErrorResume(e -> {
+                System.err.println("Error generating trending article " + articleNumber + " for category " + category + ": " + e.getMessage());
+                return Mono.empty();
+            });
     }
 
     private String getCategoryContext(String category) {
@@ -0,0 +1,159 @@
+package com.article_generator.article_generator.client;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final Duration NO_CEILING = Duration.ofHours(1);
+
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit, int minLimit, int maxLimit, int maxQueue,
+                                                      double backoffRatio, Duration latencyCeiling) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, maxQueue, backoffRatio,
+            latencyCeiling, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void successAtFullUtilisationAddsOneOverLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 10, 10, 0.5, NO_CEILING);
+
+        // limit 1 -> 1 + 1/1 = 2
+        succeed(limiter);
+        assertThat(limit(limiter)).isEqualTo(2);
+
+        // Two concurrent calls: the first release sees 2 in flight (2 -> 2.5), the second only 1 of 2.5 (no growth)
+        List<Sinks.One<String>> calls = start(limiter, 2);
+        calls.forEach(call -> call.tryEmitValue("ok"));
+        assertThat(limit(limiter)).isEqualTo(2);
+
+        // Next round: 2.5 -> 2.9, then 2.9 + 1/2.9 crosses 3 on the following round
+        calls = start(limiter, 2);
+        calls.forEach(call -> call.tryEmitValue("ok"));
+        calls = start(limiter, 2);
+        calls.forEach(call -> call.tryEmitValue("ok"));
+        assertThat(limit(limiter)).isEqualTo(3);
+    }
+
+    @Test
+    void limitDoesNotGrowWhileMostlyUnused() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 1, 10, 10, 0.5, NO_CEILING);
+
+        for (int i = 0; i < 20; i++) {
+            succeed(limiter);
+        }
+
+        assertThat(limit(limiter)).isEqualTo(4);
+    }
+
+    @Test
+    void limitNeverExceedsMax() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 2, 10, 0.5, NO_CEILING);
+
+        for (int i = 0; i < 5; i++) {
+            start(limiter, 2).forEach(call -> call.tryEmitValue("ok"));
+        }
+
+        assertThat(limit(limiter)).isEqualTo(2);
+    }
+
+    @Test
+    void droppedCallCutsLimitMultiplicativelyDownToMin() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 2, 20, 10, 0.5, NO_CEILING);
+
+        drop(limiter);
+        assertThat(limit(limiter)).isEqualTo(5);
+        drop(limiter);
+        assertThat(limit(limiter)).isEqualTo(2);
+        drop(limiter);
+        assertThat(limit(limiter)).isEqualTo(2);
+        assertThat(limiter.getStats()).containsEntry("drops", 3L);
+    }
+
+    @Test
+    void ignoredErrorLeavesLimitAlone() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 1, 10, 10, 0.5, NO_CEILING);
+
+        assertThatThrownBy(() -> limiter.limit(() -> Mono.error(new IllegalArgumentException("bad request")),
+                e -> AdaptiveConcurrencyLimiter.Outcome.IGNORED).block())
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(limit(limiter)).isEqualTo(4);
+        assertThat(limiter.getStats()).containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void successSlowerThanCeilingCountsAsDrop() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 1, 10, 10, 0.5, Duration.ZERO);
+
+        assertThat(limiter.limit(() -> Mono.just("ok").delayElement(Duration.ofMillis(5)),
+                e -> AdaptiveConcurrencyLimiter.Outcome.DROPPED).block())
+            .isEqualTo("ok");
+
+        assertThat(limit(limiter)).isEqualTo(4);
+    }
+
+    @Test
+    void callsBeyondLimitWaitThenRunInOrder() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, 10, 0.5, NO_CEILING);
+
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+        List<String> results = new ArrayList<>();
+        limiter.limit(first::asMono, e -> AdaptiveConcurrencyLimiter.Outcome.DROPPED).subscribe(results::add);
+        limiter.limit(second::asMono, e -> AdaptiveConcurrencyLimiter.Outcome.DROPPED).subscribe(results::add);
+
+        assertThat(limiter.getStats()).containsEntry("inFlight", 1).containsEntry("queueDepth", 1);
+
+        first.tryEmitValue("first");
+        assertThat(limiter.getStats()).containsEntry("inFlight", 1).containsEntry("queueDepth", 0);
+        second.tryEmitValue("second");
+
+        assertThat(results).containsExactly("first", "second");
+        assertThat(limiter.getStats()).containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, 0, 0.5, NO_CEILING);
+        start(limiter, 1);
+
+        assertThatThrownBy(() -> limiter.limit(() -> Mono.just("ok"), e -> AdaptiveConcurrencyLimiter.Outcome.DROPPED).block())
+            .isInstanceOf(GeminiOverloadedException.class);
+
+        assertThat(limiter.getStats()).containsEntry("rejections", 1L);
+    }
+
+    private static List<Sinks.One<String>> start(AdaptiveConcurrencyLimiter limiter, int count) {
+        List<Sinks.One<String>> calls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Sinks.One<String> call = Sinks.one();
+            limiter.limit(call::asMono, e -> AdaptiveConcurrencyLimiter.Outcome.DROPPED).subscribe();
+            calls.add(call);
+        }
+        assertThat(limiter.getStats()).containsEntry("inFlight", count);
+        return calls;
+    }
+
+    private static void succeed(AdaptiveConcurrencyLimiter limiter) {
+        assertThat(limiter.limit(() -> Mono.just("ok"), e -> AdaptiveConcurrencyLimiter.Outcome.DROPPED).block())
+            .isEqualTo("ok");
+    }
+
+    private static void drop(AdaptiveConcurrencyLimiter limiter) {
+        assertThatThrownBy(() -> limiter.limit(() -> Mono.error(new IllegalStateException("503")),
+                e -> AdaptiveConcurrencyLimiter.Outcome.DROPPED).block())
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static int limit(AdaptiveConcurrencyLimiter limiter) {
+        return (int) limiter.getStats().get("limit");
+    }
+}
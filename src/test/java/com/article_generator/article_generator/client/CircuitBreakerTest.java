@@ -0,0 +1,158 @@
+package com.article_generator.article_generator.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    // 50% failure threshold over the last 4 calls, all 4 needed; 2 probes when half-open
+    private static CircuitBreaker breaker(Duration openDuration) {
+        return new CircuitBreaker(50, 4, 4, openDuration, 2);
+    }
+
+    @Test
+    void staysClosedUntilMinimumCallsAreBuffered() {
+        CircuitBreaker breaker = breaker(Duration.ofHours(1));
+
+        fail(breaker);
+        fail(breaker);
+        fail(breaker);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void opensOnceFailureRateReachesThresholdAndRejectsCalls() {
+        CircuitBreaker breaker = breaker(Duration.ofHours(1));
+
+        succeed(breaker);
+        succeed(breaker);
+        fail(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        fail(breaker);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isEmpty();
+        assertThat(breaker.remainingOpenTime()).isPositive();
+        assertThat(breaker.getStats()).containsEntry("rejectedCalls", 1L).containsEntry("timesOpened", 1L);
+    }
+
+    @Test
+    void halfOpenLetsOnlyTheConfiguredProbesThroughThenCloses() {
+        CircuitBreaker breaker = breaker(Duration.ZERO);
+        trip(breaker);
+
+        CircuitBreaker.Permit first = breaker.tryAcquirePermission().orElseThrow();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        CircuitBreaker.Permit second = breaker.tryAcquirePermission().orElseThrow();
+        assertThat(breaker.tryAcquirePermission()).isEmpty();
+
+        first.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        second.onSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.getStats()).containsEntry("bufferedCalls", 0);
+    }
+
+    @Test
+    void probeFailureReopens() {
+        CircuitBreaker breaker = new CircuitBreaker(50, 4, 4, Duration.ofMillis(50), 2);
+        trip(breaker);
+        sleep(60);
+
+        CircuitBreaker.Permit probe = breaker.tryAcquirePermission().orElseThrow();
+        probe.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.getStats()).containsEntry("timesOpened", 2L);
+    }
+
+    @Test
+    void ignoredProbeFreesItsSlot() {
+        CircuitBreaker breaker = breaker(Duration.ZERO);
+        trip(breaker);
+
+        CircuitBreaker.Permit first = breaker.tryAcquirePermission().orElseThrow();
+        breaker.tryAcquirePermission().orElseThrow();
+        assertThat(breaker.tryAcquirePermission()).isEmpty();
+
+        first.onIgnored();
+
+        assertThat(breaker.tryAcquirePermission()).isPresent();
+        assertThat(breaker.tryAcquirePermission()).isEmpty();
+    }
+
+    @Test
+    void callAdmittedWhileClosedDoesNotCountAsProbe() {
+        CircuitBreaker breaker = breaker(Duration.ZERO);
+        CircuitBreaker.Permit admittedWhileClosed = breaker.tryAcquirePermission().orElseThrow();
+        trip(breaker);
+
+        CircuitBreaker.Permit probe = breaker.tryAcquirePermission().orElseThrow();
+        breaker.tryAcquirePermission().orElseThrow();
+
+        // Completing late must neither close the breaker nor free a probe slot
+        admittedWhileClosed.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isEmpty();
+
+        probe.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    void staleFailureDoesNotReopen() {
+        CircuitBreaker breaker = breaker(Duration.ZERO);
+        CircuitBreaker.Permit admittedWhileClosed = breaker.tryAcquirePermission().orElseThrow();
+        trip(breaker);
+        breaker.tryAcquirePermission().orElseThrow();
+
+        admittedWhileClosed.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    void permitCompletesOnlyOnce() {
+        CircuitBreaker breaker = breaker(Duration.ZERO);
+        trip(breaker);
+
+        CircuitBreaker.Permit probe = breaker.tryAcquirePermission().orElseThrow();
+        probe.onSuccess();
+        probe.onSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    private static void trip(CircuitBreaker breaker) {
+        for (int i = 0; i < 4; i++) {
+            fail(breaker);
+        }
+        assertThat(breaker.getStats()).containsEntry("state", "OPEN");
+    }
+
+    private static void succeed(CircuitBreaker breaker) {
+        Optional<CircuitBreaker.Permit> permit = breaker.tryAcquirePermission();
+        assertThat(permit).isPresent();
+        permit.get().onSuccess();
+    }
+
+    private static void fail(CircuitBreaker breaker) {
+        Optional<CircuitBreaker.Permit> permit = breaker.tryAcquirePermission();
+        assertThat(permit).isPresent();
+        permit.get().onFailure();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
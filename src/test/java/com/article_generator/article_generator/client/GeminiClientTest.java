@@ -0,0 +1,41 @@
+package com.article_generator.article_generator.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GeminiClientTest {
+
+    @Test
+    void unreachableProviderOpensTheBreaker() throws Exception {
+        // A port that was just free, so connecting to it is refused
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        CircuitBreaker breaker = new CircuitBreaker(50, 4, 4, Duration.ofHours(1), 1);
+        GeminiClient client = new GeminiClient(
+            WebClient.builder().baseUrl("http://127.0.0.1:" + port).build(),
+            new AdaptiveConcurrencyLimiter(4, 1, 4, 10, 0.5, Duration.ofSeconds(30), Duration.ofSeconds(5)),
+            breaker);
+        ReflectionTestUtils.setField(client, "apiKey", "test");
+        ReflectionTestUtils.setField(client, "modelName", "test-model");
+        ReflectionTestUtils.setField(client, "maxAttempts", 1);
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> client.generateArticle("prompt", 100).block())
+                .isInstanceOf(WebClientRequestException.class);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> client.generateArticle("prompt", 100).block())
+            .isInstanceOf(GeminiUnavailableException.class);
+    }
+}
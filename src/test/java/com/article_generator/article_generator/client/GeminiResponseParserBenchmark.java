@@ -0,0 +1,106 @@
+package com.article_generator.article_generator.client;
+
+import com.article_generator.article_generator.dto.ArticleResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the original Gemini response handling (whole body into nested
+ * maps, unchecked casts, substring scan, second readTree) with
+ * GeminiResponseParser plus a single typed bind.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.article_generator.article_generator.client.GeminiResponseParserBenchmark
+ * The GC profiler reports gc.alloc.rate.norm (bytes allocated per call).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeminiResponseParserBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectReader articleReader = objectMapper.readerFor(ArticleResponse.class)
+        .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private byte[] responseBody;
+
+    @Setup
+    public void setUp() throws Exception {
+        // A medium-length article (~1000 words) as the model returns it, wrapped in a full generateContent envelope
+        String paragraph = "Honestly, I didn't expect this to work as well as it did. In my experience the first week is "
+            + "the hardest, and you'll want to give up at least twice. Here's what I learned along the way. ";
+        String article = objectMapper.writeValueAsString(Map.of(
+            "title", "What Nobody Tells You About Starting Out",
+            "subtitle", "A few things I wish I'd known before I began",
+            "content", paragraph.repeat(30)));
+
+        Map<String, Object> response = Map.of(
+            "candidates", List.of(Map.of(
+                "content", Map.of("role", "model", "parts", List.of(Map.of("text", article))),
+                "finishReason", "STOP",
+                "index", 0,
+                "safetyRatings", List.of(
+                    Map.of("category", "HARM_CATEGORY_HATE_SPEECH", "probability", "NEGLIGIBLE"),
+                    Map.of("category", "HARM_CATEGORY_DANGEROUS_CONTENT", "probability", "NEGLIGIBLE"),
+                    Map.of("category", "HARM_CATEGORY_HARASSMENT", "probability", "NEGLIGIBLE"),
+                    Map.of("category", "HARM_CATEGORY_SEXUALLY_EXPLICIT", "probability", "NEGLIGIBLE")))),
+            "usageMetadata", Map.of("promptTokenCount", 412, "candidatesTokenCount", 1380, "totalTokenCount", 1792),
+            "modelVersion", "gemini-1.5-flash");
+        responseBody = objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public ArticleResponse mapCastingAndReparse() throws Exception {
+        Map<String, Object> body = objectMapper.readValue(responseBody, new TypeReference<>() {});
+        List<Map<String, Object>> candidates = (List<Map<String, Object>>) body.get("candidates");
+        Map<String, Object> content = (Map<String, Object>) candidates.get(0).get("content");
+        List<Map<String, Object>> parts = (List<Map<String, Object>>) content.get("parts");
+        String text = (String) parts.get(0).get("text");
+
+        String json = text.substring(text.indexOf('{'), text.lastIndexOf('}') + 1);
+        JsonNode node = objectMapper.readTree(json);
+        return ArticleResponse.builder()
+            .title(node.get("title").asText())
+            .subtitle(node.get("subtitle").asText())
+            .content(node.get("content").asText())
+            .build();
+    }
+
+    @Benchmark
+    public ArticleResponse streamingParser() throws Exception {
+        GeminiResponse response = GeminiResponseParser.parse(responseBody);
+        return articleReader.readValue(response.text());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(GeminiResponseParserBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
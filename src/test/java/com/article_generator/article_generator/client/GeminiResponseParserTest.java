@@ -0,0 +1,122 @@
+package com.article_generator.article_generator.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GeminiResponseParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void readsFirstCandidateTextFinishReasonAndUsage() throws Exception {
+        String body = response(List.of(Map.of("text", "{\"title\":\"T\"}")), "STOP");
+
+        GeminiResponse response = GeminiResponseParser.parse(body.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(response.text()).isEqualTo("{\"title\":\"T\"}");
+        assertThat(response.finishReason()).isEqualTo("STOP");
+        assertThat(response.usage()).isEqualTo(new GeminiResponse.UsageMetadata(12, 34, 46));
+    }
+
+    @Test
+    void keepsEscapedQuotesAndBracesInsideText() throws Exception {
+        String article = objectMapper.writeValueAsString(Map.of(
+            "title", "Why \"braces\" {matter}",
+            "subtitle", "A \\ backslash",
+            "content", "Use {\"key\": \"value\"} and } stray { braces.\nNew line"));
+
+        GeminiResponse response = GeminiResponseParser.parse(response(List.of(Map.of("text", article)), "STOP"));
+
+        assertThat(response.text()).isEqualTo(article);
+        assertThat(objectMapper.readTree(response.text()).get("content").asText())
+            .isEqualTo("Use {\"key\": \"value\"} and } stray { braces.\nNew line");
+    }
+
+    @Test
+    void concatenatesMultipleParts() throws Exception {
+        String body = response(List.of(Map.of("text", "{\"title\":"), Map.of("text", "\"T\"}")), "STOP");
+
+        assertThat(GeminiResponseParser.parse(body).text()).isEqualTo("{\"title\":\"T\"}");
+    }
+
+    @Test
+    void skipsSafetyRatingsAndLaterCandidates() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+            "candidates", List.of(
+                Map.of(
+                    "safetyRatings", List.of(Map.of("category", "HARM_CATEGORY_HATE_SPEECH", "probability", "NEGLIGIBLE")),
+                    "content", Map.of("role", "model", "parts", List.of(Map.of("text", "first"))),
+                    "finishReason", "STOP",
+                    "citationMetadata", Map.of("citationSources", List.of(Map.of("uri", "https://example.com")))),
+                Map.of(
+                    "content", Map.of("parts", List.of(Map.of("text", "second"))),
+                    "finishReason", "OTHER")),
+            "modelVersion", "gemini-1.5-flash"));
+
+        GeminiResponse response = GeminiResponseParser.parse(body);
+
+        assertThat(response.text()).isEqualTo("first");
+        assertThat(response.finishReason()).isEqualTo("STOP");
+        assertThat(response.usage()).isNull();
+    }
+
+    @Test
+    void articleWithoutTitleIsPassedThroughUnchanged() throws Exception {
+        // Field validation happens when the article is bound, not here
+        String article = "{\"subtitle\":\"S\",\"content\":\"C\"}";
+
+        assertThat(GeminiResponseParser.parse(response(List.of(Map.of("text", article)), "STOP")).text())
+            .isEqualTo(article);
+    }
+
+    @Test
+    void nonJsonAnswerIsReturnedAsText() throws Exception {
+        // Free-text mode: prose and code fences around the JSON are left for the caller to strip
+        String text = "Sure! Here's your article:\n```json\n{\"title\":\"T\"}\n```";
+
+        assertThat(GeminiResponseParser.parse(response(List.of(Map.of("text", text)), "STOP")).text()).isEqualTo(text);
+    }
+
+    @Test
+    void streamedEventWithoutFinishReasonHasNoUsageToRecord() throws Exception {
+        String event = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"{\\\"ti\"}]}}]}";
+
+        GeminiResponse response = GeminiResponseParser.parse(event);
+
+        assertThat(response.text()).isEqualTo("{\"ti");
+        assertThat(response.finishReason()).isNull();
+    }
+
+    @Test
+    void blockedPromptHasNoText() throws Exception {
+        GeminiResponse response = GeminiResponseParser.parse("{\"promptFeedback\":{\"blockReason\":\"SAFETY\"}}");
+
+        assertThat(response.text()).isNull();
+        assertThat(response.finishReason()).isNull();
+    }
+
+    @Test
+    void rejectsBodyThatIsNotAJsonObject() {
+        assertThatThrownBy(() -> GeminiResponseParser.parse("<html>Bad Gateway</html>"))
+            .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> GeminiResponseParser.parse("[1, 2]"))
+            .isInstanceOf(IOException.class);
+    }
+
+    private String response(List<Map<String, String>> parts, String finishReason) throws Exception {
+        return objectMapper.writeValueAsString(Map.of(
+            "candidates", List.of(Map.of(
+                "content", Map.of("role", "model", "parts", parts),
+                "finishReason", finishReason,
+                "index", 0)),
+            "usageMetadata", Map.of("promptTokenCount", 12, "candidatesTokenCount", 34, "totalTokenCount", 46)));
+    }
+}
@@ -0,0 +1,52 @@
+package com.article_generator.article_generator.controller;
+
+import com.article_generator.article_generator.service.ArticleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ArticleControllerTest {
+
+    @Mock
+    private ArticleService articleService;
+
+    private ArticleController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new ArticleController();
+        ReflectionTestUtils.setField(controller, "articleService", articleService);
+    }
+
+    @Test
+    void toggleFavoriteReturnsTheNewFlag() {
+        when(articleService.toggleFavorite("a1", "owner")).thenReturn(Optional.of(true));
+
+        ResponseEntity<Map<String, Object>> response = controller.toggleFavorite("a1", "owner");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsEntry("isFavorite", true);
+    }
+
+    @Test
+    void toggleFavoriteOnAnotherUsersArticleIsNotFound() {
+        when(articleService.toggleFavorite("a1", "someone-else")).thenReturn(Optional.empty());
+
+        ResponseEntity<Map<String, Object>> response = controller.toggleFavorite("a1", "someone-else");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).isNull();
+    }
+}
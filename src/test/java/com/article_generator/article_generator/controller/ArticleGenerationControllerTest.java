@@ -0,0 +1,171 @@
+package com.article_generator.article_generator.controller;
+
+import com.article_generator.article_generator.client.GeminiClient;
+import com.article_generator.article_generator.dto.ArticleGenerationRequest;
+import com.article_generator.article_generator.dto.ArticleGenerationResponse;
+import com.article_generator.article_generator.dto.ArticleResponse;
+import com.article_generator.article_generator.service.ArticleGenerationService;
+import com.article_generator.article_generator.service.ArticleService;
+import com.article_generator.article_generator.service.GenerationCacheService;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class ArticleGenerationControllerTest {
+
+    @Mock
+    private GeminiClient geminiClient;
+
+    @Mock
+    private ArticleService articleService;
+
+    private GenerationCacheService generationCacheService;
+    private ArticleGenerationController controller;
+
+    @BeforeEach
+    void setUp() {
+        generationCacheService = new GenerationCacheService(10);
+        ReflectionTestUtils.setField(generationCacheService, "enabled", true);
+        ReflectionTestUtils.setField(generationCacheService, "l1TtlMinutes", 60L);
+
+        ArticleGenerationService generationService = new ArticleGenerationService();
+        ReflectionTestUtils.setField(generationService, "deadlineSeconds", 30L);
+        ReflectionTestUtils.setField(generationService, "geminiClient", geminiClient);
+        ReflectionTestUtils.setField(generationService, "generationCacheService", generationCacheService);
+        ReflectionTestUtils.setField(generationService, "articleService", articleService);
+
+        controller = new ArticleGenerationController();
+        ReflectionTestUtils.setField(controller, "articleGenerationService", generationService);
+        ReflectionTestUtils.setField(controller, "deadlineSeconds", 30L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void repeatedRequestServedFromCacheIsNotStoredAgain() throws Exception {
+        when(geminiClient.generateArticle(anyString(), anyInt())).thenAnswer(invocation -> Mono.just(ArticleResponse.builder()
+            .title("Title")
+            .subtitle("Subtitle")
+            .content("Content")
+            .build()));
+
+        ResponseEntity<ArticleGenerationResponse> first = controller.generateArticles(request()).get();
+        awaitCached();
+        ResponseEntity<ArticleGenerationResponse> second = controller.generateArticles(request()).get();
+
+        // One generation run (three variants), one batch of inserts
+        verify(geminiClient, times(3)).generateArticle(anyString(), anyInt());
+        ArgumentCaptor<List<ArticleResponse>> stored = ArgumentCaptor.forClass(List.class);
+        verify(articleService, timeout(5000).times(1)).queueArticles(eq("anonymous"), stored.capture(), eq("Generated"));
+        assertThat(stored.getValue()).hasSize(3);
+
+        // The cached copies point at the articles stored by the first request
+        assertThat(second.getBody().getArticles())
+            .extracting(ArticleResponse::getId)
+            .containsExactlyInAnyOrderElementsOf(first.getBody().getArticles().stream().map(ArticleResponse::getId).toList())
+            .doesNotContainNull();
+    }
+
+    @Test
+    void freshRequestIsStoredEvenWhenCached() throws Exception {
+        when(geminiClient.generateArticle(anyString(), anyInt())).thenAnswer(invocation -> Mono.just(ArticleResponse.builder()
+            .title("Title")
+            .content("Content")
+            .build()));
+
+        controller.generateArticles(request()).get();
+        awaitCached();
+        ArticleGenerationRequest fresh = request();
+        fresh.setFresh(true);
+        controller.generateArticles(fresh).get();
+
+        verify(geminiClient, times(6)).generateArticle(anyString(), anyInt());
+        verify(articleService, timeout(5000).times(2)).queueArticles(eq("anonymous"), anyList(), eq("Generated"));
+    }
+
+    @Test
+    void streamOutlivesTheDefaultAsyncTimeoutUntilPastTheDeadline() throws Exception {
+        when(geminiClient.streamArticle(anyString(), anyInt())).thenReturn(Flux.just("{\"title\": \"T\"}"));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        MvcResult result = mvc.perform(get("/api/generateArticles/stream").param("input", "How to start running"))
+            .andExpect(MockMvcResultMatchers.request().asyncStarted())
+            .andReturn();
+
+        // 30 s deadline plus the margin for the closing events, not the container's 30 s default
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(45_000L);
+        mvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        assertThat(result.getResponse().getContentAsString())
+            .contains("event:chunk", "\"text\":\"T\"", "event:done");
+    }
+
+    @Test
+    void generationOutlivingTheAsyncTimeoutIsServiceUnavailable() throws Exception {
+        when(geminiClient.generateArticle(anyString(), anyInt())).thenReturn(Mono.never());
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(controller)
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+        MvcResult result = mvc.perform(post("/api/generateArticles")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"input\": \"How to start running\"}"))
+            .andExpect(MockMvcResultMatchers.request().asyncStarted())
+            .andReturn();
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        mvc.perform(asyncDispatch(result))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    private static ArticleGenerationRequest request() {
+        ArticleGenerationRequest request = new ArticleGenerationRequest();
+        request.setInput("How to start running");
+        return request;
+    }
+
+    // The cache write is handed to another thread once a run completes
+    private void awaitCached() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (((Number) generationCacheService.getStats().get("l1Size")).intValue() == 0) {
+            assertThat(System.currentTimeMillis()).as("cache write").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.article_generator.article_generator.controller;
+
+import com.article_generator.article_generator.dto.TrendingStreamEvent;
+import com.article_generator.article_generator.service.TrendingArticlesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class TrendingControllerTest {
+
+    private static final byte[] JSON = "{\"articles\":[]}".getBytes();
+    private static final byte[] GZIP = {31, -117, 8};
+
+    @Mock
+    private TrendingArticlesService trendingArticlesService;
+
+    private TrendingController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new TrendingController();
+        ReflectionTestUtils.setField(controller, "trendingArticlesService", trendingArticlesService);
+        ReflectionTestUtils.setField(controller, "streamTimeoutSeconds", 300L);
+        ReflectionTestUtils.setField(controller, "heartbeatSeconds", 25L);
+    }
+
+    @Test
+    void eachEncodingHasItsOwnEtag() {
+        stubPayload();
+        ResponseEntity<?> gzip = controller.getTrendingArticles("all", null, "gzip, deflate, br");
+        ResponseEntity<?> identity = controller.getTrendingArticles("all", null, null);
+
+        assertThat(gzip.getBody()).isEqualTo(GZIP);
+        assertThat(gzip.getHeaders().getETag()).isEqualTo("\"abc-gzip\"");
+        assertThat(gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(identity.getBody()).isEqualTo(JSON);
+        assertThat(identity.getHeaders().getETag()).isEqualTo("\"abc\"");
+        assertThat(identity.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+    }
+
+    @Test
+    void etagOfTheOtherEncodingDoesNotRevalidate() {
+        stubPayload();
+        ResponseEntity<?> response = controller.getTrendingArticles("all", "\"abc\"", "gzip");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(GZIP);
+    }
+
+    @Test
+    void notModifiedKeepsCacheControl() {
+        stubPayload();
+        ResponseEntity<?> response = controller.getTrendingArticles("all", "W/\"abc-gzip\"", "gzip");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"abc-gzip\"");
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("no-cache");
+    }
+
+    @Test
+    void acceptEncodingQualityValues() {
+        assertThat(TrendingController.acceptsGzip("gzip")).isTrue();
+        assertThat(TrendingController.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(TrendingController.acceptsGzip("x-gzip")).isTrue();
+        assertThat(TrendingController.acceptsGzip("*")).isTrue();
+        assertThat(TrendingController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(TrendingController.acceptsGzip("gzip; q=0.000, *")).isFalse();
+        assertThat(TrendingController.acceptsGzip("*;q=0")).isFalse();
+        assertThat(TrendingController.acceptsGzip("deflate, br")).isFalse();
+        assertThat(TrendingController.acceptsGzip("identity")).isFalse();
+        assertThat(TrendingController.acceptsGzip("")).isFalse();
+    }
+
+    @Test
+    void progressiveStreamHasItsOwnTimeout() throws Exception {
+        when(trendingArticlesService.streamTrending("tech")).thenReturn(Flux.just(
+            TrendingStreamEvent.builder().type("summary").category("tech").count(8).version(3L).build()));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        MvcResult result = mvc.perform(get("/api/trending/stream").param("category", "tech"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(300_000L);
+        mvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        assertThat(result.getResponse().getContentAsString()).contains("event:summary", "\"version\":3");
+    }
+
+    @Test
+    void subscriptionHasNoAsyncTimeout() throws Exception {
+        when(trendingArticlesService.subscribeToVersions(List.of("tech", "food"))).thenReturn(Flux.concat(
+            Flux.just(TrendingStreamEvent.builder().type("version").category("tech").version(4L).build()),
+            Flux.never()));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        MvcResult result = mvc.perform(get("/api/trending/subscribe").param("categories", "tech,food"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isLessThanOrEqualTo(0);
+        assertThat(result.getResponse().getContentAsString()).contains("event:version", "\"version\":4");
+    }
+
+    private void stubPayload() {
+        when(trendingArticlesService.getTrendingPayload("all"))
+            .thenReturn(new TrendingArticlesService.Payload(null, JSON, GZIP, "\"abc\"", "\"abc-gzip\""));
+    }
+}
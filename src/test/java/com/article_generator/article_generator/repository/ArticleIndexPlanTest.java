@@ -0,0 +1,140 @@
+package com.article_generator.article_generator.repository;
+
+import com.article_generator.article_generator.entity.Article;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs explain on every article listing shape against a throwaway Mongo and
+ * checks the winning plan walks an index in sort order: no COLLSCAN and no
+ * blocking SORT stage. Skipped when Docker is not available.
+ */
+@DataMongoTest
+@Testcontainers(disabledWithoutDocker = true)
+class ArticleIndexPlanTest {
+
+    private static final String USER = "user-1";
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private Article cursorArticle;
+
+    @BeforeEach
+    void seed() {
+        mongoTemplate.remove(new Query(), Article.class);
+
+        // Enough rows across several users that a collection scan or in-memory sort would be a real candidate
+        String[] categories = {"tech", "finance", "travel", "food"};
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        List<Article> articles = new ArrayList<>();
+        for (int user = 1; user <= 5; user++) {
+            for (int i = 0; i < 200; i++) {
+                articles.add(Article.builder()
+                        .userId("user-" + user)
+                        .title("Article " + i)
+                        .content("Body " + i)
+                        .category(categories[i % categories.length])
+                        .isFavorite(i % 3 == 0)
+                        // Pairs share a timestamp so the _id tie-breaker matters
+                        .createdAt(start.plusMinutes(i / 2))
+                        .build());
+            }
+        }
+        mongoTemplate.insertAll(articles);
+
+        cursorArticle = mongoTemplate.findOne(
+                new Query(Criteria.where("userId").is(USER)).with(NEWEST_FIRST).skip(50), Article.class);
+    }
+
+    @Test
+    void allArticlesUseIndexOrder() {
+        assertIndexedPlan(newestFirst(Criteria.where("userId").is(USER)));
+        assertIndexedPlan(afterCursor(Criteria.where("userId").is(USER)));
+    }
+
+    @Test
+    void favoritesUseIndexOrder() {
+        assertIndexedPlan(newestFirst(Criteria.where("userId").is(USER).and("isFavorite").is(true)));
+        assertIndexedPlan(afterCursor(Criteria.where("userId").is(USER).and("isFavorite").is(true)));
+    }
+
+    @Test
+    void categoryUsesIndexOrder() {
+        assertIndexedPlan(newestFirst(Criteria.where("userId").is(USER).and("category").is("tech")));
+        assertIndexedPlan(afterCursor(Criteria.where("userId").is(USER).and("category").is("tech")));
+    }
+
+    // Same shapes ArticleService.findPage issues for a first page and for a page after a cursor
+    private Query newestFirst(Criteria filter) {
+        return new Query(filter).with(NEWEST_FIRST).limit(21);
+    }
+
+    private Query afterCursor(Criteria filter) {
+        filter.orOperator(
+                Criteria.where("createdAt").lt(cursorArticle.getCreatedAt()),
+                Criteria.where("createdAt").is(cursorArticle.getCreatedAt()).and("id").lt(new ObjectId(cursorArticle.getId())));
+        return newestFirst(filter);
+    }
+
+    private void assertIndexedPlan(Query query) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Article.class);
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+
+        Document find = new Document("find", mongoTemplate.getCollectionName(Article.class))
+                .append("filter", mapper.getMappedObject(query.getQueryObject(), entity))
+                .append("sort", mapper.getMappedSort(query.getSortObject(), entity));
+        if (query.getLimit() > 0) {
+            find.append("limit", query.getLimit());
+        }
+        Document explain = mongoTemplate.getDb().runCommand(
+                new Document("explain", find).append("verbosity", "queryPlanner"));
+
+        Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+        List<String> stages = new ArrayList<>();
+        collectStages(winningPlan, stages);
+
+        assertThat(stages)
+                .as("plan stages for %s: %s", find.toJson(), winningPlan.toJson())
+                .contains("IXSCAN")
+                .doesNotContain("COLLSCAN", "SORT");
+    }
+
+    // Walks the plan tree (inputStage, inputStages, queryPlan, ...) collecting every stage name
+    private static void collectStages(Object node, List<String> stages) {
+        if (node instanceof Map<?, ?> map) {
+            if (map.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            map.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.article_generator.article_generator.service;
+
+import com.article_generator.article_generator.client.GeminiClient;
+import com.article_generator.article_generator.dto.ArticleResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ArticleGenerationServiceTest {
+
+    private static final int VARIANTS = 3;
+
+    @Mock
+    private GeminiClient geminiClient;
+
+    @Mock
+    private ArticleService articleService;
+
+    private ArticleGenerationService service;
+
+    @BeforeEach
+    void setUp() {
+        // Cache left disabled so every request has to go through the in-flight map
+        service = new ArticleGenerationService();
+        ReflectionTestUtils.setField(service, "deadlineSeconds", 30L);
+        ReflectionTestUtils.setField(service, "geminiClient", geminiClient);
+        ReflectionTestUtils.setField(service, "generationCacheService", new GenerationCacheService(10));
+        ReflectionTestUtils.setField(service, "articleService", articleService);
+
+        when(geminiClient.generateArticle(anyString(), anyInt())).thenAnswer(invocation -> Mono.just(ArticleResponse.builder()
+                .title("Title")
+                .content("Content")
+                .build())
+            .delayElement(Duration.ofMillis(200)));
+    }
+
+    @Test
+    void simultaneousIdenticalRequestsShareOneGeneration() throws Exception {
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<ArticleResponse>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return variants(false).articles().collectList().block(Duration.ofSeconds(10));
+                }));
+            }
+            start.countDown();
+
+            for (Future<List<ArticleResponse>> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).hasSize(VARIANTS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(geminiClient, times(VARIANTS)).generateArticle(anyString(), anyInt());
+        assertThat(service.getStats()).containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void joinerSubscribingAfterTheRunFinishedReplaysIt() {
+        ArticleGenerationService.Variants first = variants(false);
+        ArticleGenerationService.Variants joiner = variants(false);
+        assertThat(first.source()).isEqualTo(ArticleGenerationService.Source.GENERATED);
+        assertThat(joiner.source()).isEqualTo(ArticleGenerationService.Source.JOINED);
+
+        List<ArticleResponse> generated = first.articles().collectList().block(Duration.ofSeconds(10));
+        List<ArticleResponse> replayed = joiner.articles().collectList().block(Duration.ofSeconds(10));
+
+        assertThat(replayed).extracting(ArticleResponse::getId)
+            .containsExactlyInAnyOrderElementsOf(generated.stream().map(ArticleResponse::getId).toList());
+        verify(geminiClient, times(VARIANTS)).generateArticle(anyString(), anyInt());
+    }
+
+    @Test
+    void requestAfterTheRunFinishedStartsANewOne() {
+        variants(false).articles().collectList().block(Duration.ofSeconds(10));
+
+        ArticleGenerationService.Variants next = variants(false);
+        assertThat(next.source()).isEqualTo(ArticleGenerationService.Source.GENERATED);
+        next.articles().collectList().block(Duration.ofSeconds(10));
+
+        verify(geminiClient, times(2 * VARIANTS)).generateArticle(anyString(), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void runIsStoredOnceEvenWhenTheCallerThatStartedItCancels() {
+        ArticleGenerationService.Variants first = variants(false);
+        ArticleGenerationService.Variants joiner = variants(false);
+
+        Disposable starter = first.articles().subscribe();
+        CompletableFuture<List<ArticleResponse>> joined = joiner.articles().collectList().toFuture();
+        starter.dispose();
+
+        List<ArticleResponse> received = joined.join();
+        ArgumentCaptor<List<ArticleResponse>> stored = ArgumentCaptor.forClass(List.class);
+        verify(articleService, timeout(5000).times(1)).queueArticles(eq("anonymous"), stored.capture(), eq("Generated"));
+        assertThat(stored.getValue()).extracting(ArticleResponse::getId)
+            .containsExactlyInAnyOrderElementsOf(received.stream().map(ArticleResponse::getId).toList());
+    }
+
+    private ArticleGenerationService.Variants variants(boolean bypassCache) {
+        return service.articleVariants("How to start running", "medium", "engaging", "general", "all", bypassCache);
+    }
+}
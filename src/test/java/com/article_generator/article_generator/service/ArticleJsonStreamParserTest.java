@@ -0,0 +1,114 @@
+package com.article_generator.article_generator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleJsonStreamParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void extractsFieldsFromOneDelta() {
+        Map<String, String> fields = parse("{\"title\": \"T\", \"subtitle\": \"S\", \"content\": \"C\"}");
+
+        assertThat(fields).containsExactly(Map.entry("title", "T"), Map.entry("subtitle", "S"), Map.entry("content", "C"));
+    }
+
+    @Test
+    void unescapesQuotesBracesAndControlCharactersInContent() throws Exception {
+        Map<String, String> article = article("Use {\"key\": \"value\"} and a stray } or {.\n\tIndented \\ slash");
+
+        assertThat(parse(objectMapper.writeValueAsString(article))).isEqualTo(article);
+    }
+
+    @Test
+    void decodesUnicodeEscapesAndSurrogatePairs() {
+        Map<String, String> fields = parse("{\"title\": \"caf\\u00e9 \\ud83d\\ude80\", \"subtitle\": \"S\", \"content\": \"😀 ok\"}");
+
+        assertThat(fields.get("title")).isEqualTo("café 🚀");
+        assertThat(fields.get("content")).isEqualTo("😀 ok");
+    }
+
+    @Test
+    void sameResultWhereverTheResponseIsSplit() throws Exception {
+        Map<String, String> article = article("Quote \"here\", brace {there}, escape \\n, emoji 😀 and café.");
+        String json = objectMapper.writeValueAsString(article).replace("é", "\\u00e9");
+
+        // Every two-way split, which puts a boundary inside keys, escapes, unicode escapes and surrogate pairs
+        for (int split = 0; split <= json.length(); split++) {
+            assertThat(parse(json.substring(0, split), json.substring(split)))
+                .as("split at %d", split)
+                .isEqualTo(article);
+        }
+
+        // And one character per delta
+        assertThat(parse(json.split(""))).isEqualTo(article);
+    }
+
+    @Test
+    void neverEmitsHalfASurrogatePair() {
+        ArticleJsonStreamParser parser = new ArticleJsonStreamParser();
+
+        List<ArticleJsonStreamParser.FieldChunk> first = parser.feed("{\"content\": \"a\uD83D");
+        List<ArticleJsonStreamParser.FieldChunk> second = parser.feed("\uDE00b\"}");
+
+        assertThat(first).containsExactly(new ArticleJsonStreamParser.FieldChunk("content", "a"));
+        assertThat(second).containsExactly(new ArticleJsonStreamParser.FieldChunk("content", "😀b"));
+    }
+
+    @Test
+    void missingTitleYieldsTheOtherFieldsOnly() {
+        Map<String, String> fields = parse("{\"subtitle\": \"S\", \"content\": \"C\"}");
+
+        assertThat(fields).containsOnlyKeys("subtitle", "content");
+    }
+
+    @Test
+    void ignoresOtherKeysAndNonStringValues() {
+        Map<String, String> fields = parse(
+            "{\"wordCount\": 1200, \"tags\": [\"a\", \"b\"], \"note\": \"title\", \"title\": \"T\", \"draft\": false, \"content\": \"C\"}");
+
+        assertThat(fields).containsExactly(Map.entry("title", "T"), Map.entry("content", "C"));
+    }
+
+    @Test
+    void findsJsonWrappedInProseAndFences() {
+        Map<String, String> fields = parse("Sure! Here's the article:\n```json\n{\"title\": \"T\", \"content\": \"C\"}\n```");
+
+        assertThat(fields).containsEntry("title", "T").containsEntry("content", "C");
+    }
+
+    @Test
+    void plainProseProducesNoChunks() {
+        ArticleJsonStreamParser parser = new ArticleJsonStreamParser();
+
+        assertThat(parser.feed("I'm sorry, I can't write an article about that. ")).isEmpty();
+        assertThat(parser.feed("Maybe try a different topic?")).isEmpty();
+    }
+
+    private static Map<String, String> article(String content) {
+        Map<String, String> article = new LinkedHashMap<>();
+        article.put("title", "Why \"braces\" {matter}");
+        article.put("subtitle", "A \\ backslash and a /slash");
+        article.put("content", content);
+        return article;
+    }
+
+    // Concatenates the chunks of each field in the order they were emitted
+    private static Map<String, String> parse(String... deltas) {
+        ArticleJsonStreamParser parser = new ArticleJsonStreamParser();
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (String delta : deltas) {
+            for (ArticleJsonStreamParser.FieldChunk chunk : parser.feed(delta)) {
+                fields.merge(chunk.field(), chunk.text(), String::concat);
+            }
+        }
+        return fields;
+    }
+}
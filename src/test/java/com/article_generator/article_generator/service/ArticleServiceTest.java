@@ -0,0 +1,227 @@
+package com.article_generator.article_generator.service;
+
+import com.article_generator.article_generator.dto.ArticlePageResponse;
+import com.article_generator.article_generator.dto.ArticleResponse;
+import com.article_generator.article_generator.entity.Article;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ArticleServiceTest {
+
+    // The order findPage asks Mongo for: createdAt desc, then id desc
+    private static final Comparator<Article> NEWEST_FIRST =
+        Comparator.comparing(Article::getCreatedAt).thenComparing(Article::getId).reversed();
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private ArticleService articleService;
+
+    @BeforeEach
+    void setUp() {
+        articleService = new ArticleService();
+        ReflectionTestUtils.setField(articleService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(articleService, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(articleService, "maxPageSize", 100);
+    }
+
+    @Test
+    void summaryOfArticleNotYetBackfilledOmitsWordCountInsteadOfZero() {
+        Article stored = article("new", "Stored preview", 42);
+        Article legacy = article("legacy", null, null);
+        when(mongoTemplate.find(any(Query.class), eq(Article.class))).thenReturn(List.of(stored, legacy));
+
+        List<ArticleResponse> page = articleService.getUserArticles("user", null, null, true).getArticles();
+
+        assertThat(page.get(0).getPreview()).isEqualTo("Stored preview");
+        assertThat(page.get(0).getWordCount()).isEqualTo(42);
+        assertThat(page.get(1).getPreview()).isNull();
+        assertThat(page.get(1).getWordCount()).isNull();
+    }
+
+    @Test
+    void backfillSetsPreviewAndWordCountFromContent() {
+        Article legacy = article("legacy", null, null);
+        legacy.setContent("  Three   short\nwords  ");
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.stream(any(Query.class), eq(Article.class))).thenReturn(Stream.of(legacy));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Article.class)).thenReturn(bulk);
+        when(bulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+
+        articleService.backfillSummaryFields();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk).updateOne(any(Query.class), update.capture());
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class))
+            .containsEntry("preview", "Three short words")
+            .containsEntry("wordCount", 3);
+    }
+
+    @Test
+    void pagesThroughArticlesSharingACreatedAtWithoutGapsOrRepeats() {
+        LocalDateTime tie = LocalDateTime.of(2024, 3, 1, 12, 0);
+        List<Article> library = List.of(
+            owned("user", tie.plusMinutes(1)),
+            owned("user", tie),
+            owned("user", tie),
+            owned("user", tie),
+            owned("user", tie.minusMinutes(1)),
+            owned("someone-else", tie));
+        when(mongoTemplate.find(any(Query.class), eq(Article.class)))
+            .thenAnswer(invocation -> evaluate(library, invocation.getArgument(0)));
+
+        List<String> seen = new ArrayList<>();
+        List<Boolean> hasMore = new ArrayList<>();
+        String cursor = null;
+        do {
+            ArticlePageResponse page = articleService.getUserArticles("user", cursor, 2, false);
+            page.getArticles().forEach(article -> seen.add(article.getId()));
+            hasMore.add(page.isHasMore());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<String> expected = library.subList(0, 5).stream()
+            .sorted(NEWEST_FIRST)
+            .map(Article::getId)
+            .toList();
+        assertThat(seen).containsExactlyElementsOf(expected);
+        assertThat(hasMore).containsExactly(true, true, false);
+    }
+
+    @Test
+    void readsOneRowPastThePageToKnowWhetherMoreFollow() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(query.capture(), eq(Article.class))).thenReturn(List.of(
+            owned("user", LocalDateTime.now()), owned("user", LocalDateTime.now().minusMinutes(1))));
+
+        ArticlePageResponse exactlyFull = articleService.getUserArticles("user", null, 2, false);
+        ArticlePageResponse onePastFull = articleService.getUserArticles("user", null, 1, false);
+        articleService.getUserArticles("user", null, null, false);
+        articleService.getUserArticles("user", null, 1000, false);
+
+        assertThat(exactlyFull.isHasMore()).isFalse();
+        assertThat(exactlyFull.getNextCursor()).isNull();
+        assertThat(onePastFull.isHasMore()).isTrue();
+        assertThat(onePastFull.getArticles()).hasSize(1);
+        assertThat(onePastFull.getNextCursor()).isNotNull();
+        // Default and maximum page sizes, each plus the look-ahead row
+        assertThat(query.getAllValues()).extracting(Query::getLimit).containsExactly(3, 2, 21, 101);
+        assertThat(query.getValue().getSortObject()).isEqualTo(new Document("createdAt", -1).append("id", -1));
+    }
+
+    @Test
+    void rejectsACursorItDidNotIssue() {
+        assertThatThrownBy(() -> articleService.getUserArticles("user", "not-a-cursor", 10, false))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void toggleFavoriteFlipsTheFlagInOneOwnerScopedFindAndModify() {
+        String id = new ObjectId().toHexString();
+        Article flipped = article(id, "Preview", 1);
+        flipped.setFavorite(true);
+        when(mongoTemplate.findAndModify(any(Query.class), any(AggregationUpdate.class),
+            any(FindAndModifyOptions.class), eq(Article.class))).thenReturn(flipped);
+
+        assertThat(articleService.toggleFavorite(id, "owner")).contains(true);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<AggregationUpdate> update = ArgumentCaptor.forClass(AggregationUpdate.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(), eq(Article.class));
+        // No read before the write: the server negates the stored value itself
+        verifyNoMoreInteractions(mongoTemplate);
+
+        assertThat(query.getValue().getQueryObject())
+            .containsEntry("id", new ObjectId(id))
+            .containsEntry("userId", "owner");
+        Document set = update.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).get(0).get("$set", Document.class);
+        assertThat(set.get("isFavorite", Document.class).getList("$not", Object.class)).containsExactly("$isFavorite");
+        assertThat(options.getValue().isReturnNew()).isTrue();
+    }
+
+    @Test
+    void toggleFavoriteOnAnotherUsersArticleFindsNothing() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(AggregationUpdate.class),
+            any(FindAndModifyOptions.class), eq(Article.class))).thenReturn(null);
+
+        assertThat(articleService.toggleFavorite(new ObjectId().toHexString(), "someone-else")).isEmpty();
+    }
+
+    @Test
+    void toggleFavoriteWithMalformedIdNeverReachesMongo() {
+        assertThat(articleService.toggleFavorite("not-an-id", "owner")).isEqualTo(Optional.empty());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    // Runs the page query against an in-memory library: the userId filter, the cursor's $or, the sort and the limit
+    private static List<Article> evaluate(List<Article> library, Query query) {
+        Document filter = query.getQueryObject();
+        List<Document> after = filter.getList("$or", Document.class);
+        return library.stream()
+            .filter(article -> article.getUserId().equals(filter.get("userId")))
+            .filter(article -> after == null || after.stream().anyMatch(condition -> isAfter(article, condition)))
+            .sorted(NEWEST_FIRST)
+            .limit(query.getLimit())
+            .toList();
+    }
+
+    private static boolean isAfter(Article article, Document condition) {
+        if (condition.get("createdAt") instanceof Document olderThan) {
+            return article.getCreatedAt().isBefore((LocalDateTime) olderThan.get("$lt"));
+        }
+        ObjectId idBelow = (ObjectId) condition.get("id", Document.class).get("$lt");
+        return article.getCreatedAt().equals(condition.get("createdAt"))
+            && new ObjectId(article.getId()).compareTo(idBelow) < 0;
+    }
+
+    private static Article owned(String userId, LocalDateTime createdAt) {
+        Article article = article(new ObjectId().toHexString(), "Preview", 1);
+        article.setUserId(userId);
+        article.setCreatedAt(createdAt);
+        return article;
+    }
+
+    private static Article article(String id, String preview, Integer wordCount) {
+        Article article = new Article();
+        article.setId(id);
+        article.setTitle("Title");
+        article.setPreview(preview);
+        article.setWordCount(wordCount);
+        article.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        return article;
+    }
+}
@@ -0,0 +1,187 @@
+package com.article_generator.article_generator.service;
+
+import com.article_generator.article_generator.entity.Article;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ArticleWriteBehindServiceTest {
+
+    private static final long LONG_INTERVAL_MS = 60_000;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulk;
+
+    // Copies of every list handed to insert; the writer clears its batch once the write returns
+    private final List<List<Article>> inserted = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void fullBatchIsWrittenWithoutWaitingForTheInterval() {
+        stubBulk();
+        ArticleWriteBehindService service = service(10, 3, LONG_INTERVAL_MS);
+        service.start();
+
+        List<Article> articles = articles(3);
+        articles.forEach(service::enqueue);
+
+        verify(bulk, timeout(5000)).execute();
+        assertThat(inserted).containsExactly(articles);
+        assertThat(service.getStats()).containsEntry("written", 3L).containsEntry("batches", 1L);
+    }
+
+    @Test
+    void partialBatchIsWrittenOnceTheIntervalPasses() {
+        stubBulk();
+        ArticleWriteBehindService service = service(10, 50, 200);
+        service.start();
+
+        List<Article> articles = articles(2);
+        articles.forEach(service::enqueue);
+
+        verify(bulk, timeout(5000)).execute();
+        assertThat(inserted).containsExactly(articles);
+        assertThat(service.getStats()).containsEntry("written", 2L).containsEntry("queued", 0);
+    }
+
+    @Test
+    void callerWritesItsOwnArticleWhenTheQueueStaysFull() {
+        stubBulk();
+        // Writer never started, so the single slot stays taken
+        ArticleWriteBehindService service = service(1, 50, LONG_INTERVAL_MS);
+        Article queued = article(0);
+        Article overflow = article(1);
+
+        service.enqueue(queued);
+        service.enqueue(overflow);
+
+        assertThat(inserted).containsExactly(List.of(overflow));
+        assertThat(service.getStats())
+            .containsEntry("queued", 1)
+            .containsEntry("callerWrites", 1L)
+            .containsEntry("written", 1L);
+    }
+
+    @Test
+    void retryOnlyResendsArticlesThatFailedForAnotherReasonThanDuplicateKey() {
+        List<Article> articles = articles(3);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Article.class)).thenReturn(bulk);
+        when(bulk.insert(anyList())).thenAnswer(invocation -> {
+            inserted.add(List.copyOf(invocation.getArgument(0)));
+            return bulk;
+        });
+        // First attempt: index 0 was already stored by an earlier try, index 1 hit a transient error
+        when(bulk.execute())
+            .thenThrow(bulkFailure(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 0),
+                new BulkWriteError(91, "shutdown in progress", new BsonDocument(), 1)))
+            .thenReturn(BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()));
+        ArticleWriteBehindService service = service(10, 50, LONG_INTERVAL_MS);
+
+        ReflectionTestUtils.invokeMethod(service, "write", articles);
+
+        assertThat(inserted).containsExactly(articles, List.of(articles.get(1)));
+        assertThat(service.getStats()).containsEntry("written", 3L).containsEntry("failed", 0L);
+    }
+
+    @Test
+    void shutdownDrainsEverythingStillQueued() {
+        stubBulk();
+        ArticleWriteBehindService service = service(10, 2, LONG_INTERVAL_MS);
+        List<Article> articles = articles(5);
+        articles.forEach(service::enqueue);
+
+        service.start();
+        service.shutdown();
+
+        assertThat(inserted).flatExtracting(batch -> batch).containsExactlyElementsOf(articles);
+        assertThat(inserted).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(2));
+        assertThat(service.getStats())
+            .containsEntry("queued", 0)
+            .containsEntry("written", 5L)
+            .containsEntry("callerWrites", 0L);
+    }
+
+    @Test
+    void articlesEnqueuedAfterShutdownAreWrittenByTheCaller() {
+        stubBulk();
+        ArticleWriteBehindService service = service(10, 50, LONG_INTERVAL_MS);
+        service.start();
+        service.shutdown();
+
+        Article late = article(0);
+        service.enqueue(late);
+
+        assertThat(inserted).containsExactly(List.of(late));
+        assertThat(service.getStats()).containsEntry("callerWrites", 1L).containsEntry("queued", 0);
+    }
+
+    private void stubBulk() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Article.class)).thenReturn(bulk);
+        when(bulk.insert(anyList())).thenAnswer(invocation -> {
+            inserted.add(List.copyOf(invocation.getArgument(0)));
+            return bulk;
+        });
+        when(bulk.execute()).thenAnswer(invocation -> {
+            int count = inserted.get(inserted.size() - 1).size();
+            return BulkWriteResult.acknowledged(count, 0, 0, 0, List.of(), List.of());
+        });
+    }
+
+    private ArticleWriteBehindService service(int capacity, int batchSize, long flushIntervalMs) {
+        ArticleWriteBehindService service = new ArticleWriteBehindService(capacity);
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "batchSize", batchSize);
+        ReflectionTestUtils.setField(service, "flushIntervalMs", flushIntervalMs);
+        ReflectionTestUtils.setField(service, "offerTimeoutMs", 10L);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "retryBackoffMs", 0L);
+        ReflectionTestUtils.setField(service, "shutdownTimeoutSeconds", 5L);
+        return service;
+    }
+
+    private static BulkOperationException bulkFailure(BulkWriteError... errors) {
+        MongoBulkWriteException source = new MongoBulkWriteException(
+            BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()),
+            List.of(errors), null, new ServerAddress(), Set.of());
+        return new BulkOperationException("Bulk write failed", source);
+    }
+
+    private static List<Article> articles(int count) {
+        List<Article> articles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            articles.add(article(i));
+        }
+        return articles;
+    }
+
+    private static Article article(int index) {
+        Article article = new Article();
+        article.setId("article-" + index);
+        article.setTitle("Article " + index);
+        return article;
+    }
+}
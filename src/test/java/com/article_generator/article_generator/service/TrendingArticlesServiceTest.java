@@ -0,0 +1,321 @@
+package com.article_generator.article_generator.service;
+
+import com.article_generator.article_generator.client.GeminiClient;
+import com.article_generator.article_generator.dto.ArticleResponse;
+import com.article_generator.article_generator.dto.TrendingStreamEvent;
+import com.article_generator.article_generator.entity.TrendingSnapshotEntry;
+import com.article_generator.article_generator.repository.TrendingSnapshotRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrendingArticlesServiceTest {
+
+    @Mock
+    private GeminiClient geminiClient;
+
+    @Mock
+    private TrendingSnapshotRepository trendingSnapshotRepository;
+
+    private TrendingArticlesService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TrendingArticlesService();
+        ReflectionTestUtils.setField(service, "geminiClient", geminiClient);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "maxMemoryMb", 64L);
+        ReflectionTestUtils.setField(service, "gzipEnabled", true);
+        ReflectionTestUtils.setField(service, "articleTtlHours", 24L);
+        ReflectionTestUtils.setField(service, "articleTtlJitterPercent", 25);
+        ReflectionTestUtils.setField(service, "failureRetryMinutes", 5L);
+        ReflectionTestUtils.setField(service, "parallelism", 4);
+        ReflectionTestUtils.setField(service, "articleTimeoutSeconds", 60L);
+        ReflectionTestUtils.setField(service, "subscriberBufferSize", 32);
+    }
+
+    @Test
+    void evictedCategoryReloadsYesterdaysEntryAfterMidnight() {
+        ReflectionTestUtils.setField(service, "trendingSnapshotRepository", trendingSnapshotRepository);
+        LocalDate today = LocalDate.now();
+        when(trendingSnapshotRepository.findById("tech:" + today)).thenReturn(Optional.empty());
+        when(trendingSnapshotRepository.findById("tech:" + today.minusDays(1)))
+            .thenReturn(Optional.of(storedEntry("tech", today.minusDays(1), 7)));
+
+        TrendingArticlesService.Snapshot snapshot = service.getTrendingSnapshot("tech");
+
+        assertThat(snapshot.articles()).hasSize(8);
+        assertThat(snapshot.version()).isEqualTo(7);
+        verify(geminiClient, never()).generateArticle(anyString(), anyInt());
+    }
+
+    @Test
+    void finishedRebuildKeptForPollingHoldsNoArticles() {
+        when(geminiClient.generateArticle(anyString(), anyInt()))
+            .thenAnswer(invocation -> Mono.just(article("Generated")));
+
+        TrendingArticlesService.Rebuild rebuild = service.refresh("tech");
+        assertThat(rebuild.result().join().articles()).hasSize(8);
+
+        TrendingArticlesService.Rebuild polled = service.getRebuild(rebuild.id()).orElseThrow();
+        assertThat(polled.status()).isEqualTo("completed");
+        assertThat(polled.result().join().version()).isEqualTo(1);
+        assertThat(polled.result().join().articles()).isEmpty();
+        assertThat(polled.progress().asFlux().collectList().block(Duration.ofSeconds(1))).isEmpty();
+    }
+
+    @Test
+    void prebuildOfAnEvictedCategoryKeepsItsStoredSlotsAndVersion() {
+        ReflectionTestUtils.setField(service, "trendingSnapshotRepository", trendingSnapshotRepository);
+        LocalDate today = LocalDate.now();
+        when(trendingSnapshotRepository.findById("tech:" + today))
+            .thenReturn(Optional.of(storedEntry("tech", today, 7)));
+
+        Integer articles = service.refreshExpiring("tech", Duration.ofMinutes(30), 2).block(Duration.ofSeconds(5));
+
+        assertThat(articles).isEqualTo(8);
+        assertThat(service.getTrendingSnapshot("tech").version()).isEqualTo(7);
+        verify(geminiClient, never()).generateArticle(anyString(), anyInt());
+    }
+
+    @Test
+    void categoryEvictedDuringARebuildKeepsCountingVersions() {
+        when(geminiClient.generateArticle(anyString(), anyInt()))
+            .thenAnswer(invocation -> Mono.just(article("First")));
+        assertThat(service.refresh("tech").result().join().version()).isEqualTo(1);
+
+        Sinks.One<ArticleResponse> gate = Sinks.one();
+        when(geminiClient.generateArticle(anyString(), anyInt())).thenAnswer(invocation -> gate.asMono());
+        TrendingArticlesService.Rebuild rebuild = service.refresh("tech");
+        snapshots().remove("tech");
+        gate.tryEmitValue(article("Second"));
+
+        assertThat(rebuild.result().join().version()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentReadersOfAColdCategoryShareOneRebuild() throws Exception {
+        when(geminiClient.generateArticle(anyString(), anyInt()))
+            .thenAnswer(invocation -> Mono.just(article("Generated")).delayElement(Duration.ofMillis(200)));
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<TrendingArticlesService.Snapshot>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return service.getTrendingSnapshot("tech");
+                }));
+            }
+            start.countDown();
+
+            TrendingArticlesService.Snapshot first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<TrendingArticlesService.Snapshot> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isSameAs(first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(geminiClient, times(8)).generateArticle(anyString(), anyInt());
+        assertThat(service.getStats()).containsEntry("rebuildsRunning", 0);
+    }
+
+    @Test
+    void refreshDuringAPartialRebuildQueuesExactlyOneFullRebuild() {
+        snapshots().put("tech", snapshot("tech", Set.of(3), 5));
+        Sinks.One<ArticleResponse> gate = Sinks.one();
+        when(geminiClient.generateArticle(anyString(), anyInt())).thenAnswer(invocation -> gate.asMono());
+
+        // Stale read starts a rebuild of the one due slot
+        service.getTrendingSnapshot("tech");
+        TrendingArticlesService.Rebuild first = service.refresh("tech");
+        TrendingArticlesService.Rebuild second = service.refresh("tech");
+
+        assertThat(first).isSameAs(second);
+        assertThat(first.full()).isTrue();
+        assertThat(first.status()).isEqualTo("queued");
+        assertThat(service.getStats()).containsEntry("rebuildsQueued", 1).containsEntry("rebuildsRunning", 1);
+        verify(geminiClient, times(1)).generateArticle(anyString(), anyInt());
+
+        gate.tryEmitValue(article("Regenerated"));
+
+        TrendingArticlesService.Snapshot rebuilt = first.result().join();
+        assertThat(first.status()).isEqualTo("completed");
+        assertThat(rebuilt.articles()).extracting(ArticleResponse::getTitle).containsOnly("Regenerated");
+        // One call for the partial rebuild, then all eight slots once
+        verify(geminiClient, times(9)).generateArticle(anyString(), anyInt());
+        assertThat(service.getStats()).containsEntry("rebuildsQueued", 0).containsEntry("rebuildsRunning", 0);
+    }
+
+    @Test
+    void refreshWhileAFullRebuildRunsJoinsIt() {
+        Sinks.One<ArticleResponse> gate = Sinks.one();
+        when(geminiClient.generateArticle(anyString(), anyInt())).thenAnswer(invocation -> gate.asMono());
+
+        TrendingArticlesService.Rebuild first = service.refresh("tech");
+        TrendingArticlesService.Rebuild second = service.refresh("tech");
+        gate.tryEmitValue(article("Generated"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.result().join().articles()).hasSize(8);
+        verify(geminiClient, times(8)).generateArticle(anyString(), anyInt());
+    }
+
+    @Test
+    void versionMovesOnlyWhenTheArticlesChange() {
+        snapshots().put("tech", snapshot("tech", Set.of(), 5));
+        List<TrendingStreamEvent> events = new ArrayList<>();
+        service.subscribeToVersions(List.of("tech")).subscribe(events::add);
+
+        // Every generation fails: each slot keeps its article, so nothing changed
+        when(geminiClient.generateArticle(anyString(), anyInt())).thenReturn(Mono.empty());
+        assertThat(service.refresh("tech").result().join().version()).isEqualTo(5);
+
+        when(geminiClient.generateArticle(anyString(), anyInt()))
+            .thenAnswer(invocation -> Mono.just(article("Regenerated")));
+        assertThat(service.refresh("tech").result().join().version()).isEqualTo(6);
+
+        assertThat(events).extracting(TrendingStreamEvent::getVersion).containsExactly(5L, 6L);
+    }
+
+    @Test
+    void onlyTheExpiredSlotIsRegenerated() {
+        TrendingArticlesService.Snapshot stale = snapshot("tech", Set.of(3), 5);
+        snapshots().put("tech", stale);
+        when(geminiClient.generateArticle(anyString(), anyInt()))
+            .thenAnswer(invocation -> Mono.just(article("Regenerated")));
+
+        service.refreshExpiring("tech", Duration.ZERO, 4).block(Duration.ofSeconds(5));
+
+        TrendingArticlesService.Snapshot refreshed = service.getTrendingSnapshot("tech");
+        verify(geminiClient, times(1)).generateArticle(anyString(), anyInt());
+        assertThat(refreshed.version()).isEqualTo(6);
+        for (int i = 0; i < 8; i++) {
+            if (i == 2) {
+                assertThat(refreshed.slots().get(i).article().getTitle()).isEqualTo("Regenerated");
+                assertThat(refreshed.slots().get(i).isDue(Instant.now())).isFalse();
+            } else {
+                assertThat(refreshed.slots().get(i)).isSameAs(stale.slots().get(i));
+            }
+        }
+    }
+
+    @Test
+    void failedSlotKeepsItsArticleAndRetriesAfterTheBackOff() {
+        TrendingArticlesService.Snapshot stale = snapshot("tech", Set.of(3), 5);
+        snapshots().put("tech", stale);
+        when(geminiClient.generateArticle(anyString(), anyInt())).thenReturn(Mono.empty());
+
+        service.refreshExpiring("tech", Duration.ZERO, 4).block(Duration.ofSeconds(5));
+
+        TrendingArticlesService.Slot slot = service.getTrendingSnapshot("tech").slots().get(2);
+        assertThat(slot.article()).isSameAs(stale.slots().get(2).article());
+        assertThat(Duration.between(Instant.now(), slot.expiresAt()))
+            .isBetween(Duration.ofMinutes(4), Duration.ofMinutes(5));
+    }
+
+    @Test
+    void jitteredExpiryFallsInTheConfiguredWindow() {
+        when(geminiClient.generateArticle(anyString(), anyInt()))
+            .thenAnswer(invocation -> Mono.just(article("Generated")));
+
+        for (String category : List.of("tech", "finance", "health", "travel")) {
+            for (TrendingArticlesService.Slot slot : service.refresh(category).result().join().slots()) {
+                // 24 h TTL shortened by up to 25%
+                assertThat(Duration.between(slot.generatedAt(), slot.expiresAt()))
+                    .isBetween(Duration.ofHours(18), Duration.ofHours(24));
+            }
+        }
+    }
+
+    @Test
+    void zeroJitterGivesEverySlotTheFullTtl() {
+        ReflectionTestUtils.setField(service, "articleTtlJitterPercent", 0);
+        when(geminiClient.generateArticle(anyString(), anyInt()))
+            .thenAnswer(invocation -> Mono.just(article("Generated")));
+
+        assertThat(service.refresh("tech").result().join().slots())
+            .allSatisfy(slot -> assertThat(Duration.between(slot.generatedAt(), slot.expiresAt())).isEqualTo(Duration.ofHours(24)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, TrendingArticlesService.Snapshot> snapshots() {
+        return (Map<String, TrendingArticlesService.Snapshot>) ReflectionTestUtils.getField(service, "snapshots");
+    }
+
+    // Every slot fresh for another hour except the given 1-based positions, which are already due
+    private TrendingArticlesService.Snapshot snapshot(String category, Set<Integer> duePositions, long version) {
+        Instant now = Instant.now();
+        List<String> topics = topics(category);
+        List<TrendingArticlesService.Slot> slots = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Instant expiresAt = duePositions.contains(i + 1) ? now.minusSeconds(1) : now.plus(Duration.ofHours(1));
+            slots.add(new TrendingArticlesService.Slot(topics.get(i), article(topics.get(i)), now.minus(Duration.ofHours(20)), expiresAt));
+        }
+        return TrendingArticlesService.Snapshot.of(slots, LocalDate.now()).withVersion(version);
+    }
+
+    // A persisted snapshot of the category with every slot fresh for another hour
+    private TrendingSnapshotEntry storedEntry(String category, LocalDate date, long version) {
+        Instant generatedAt = Instant.now().minus(Duration.ofHours(2));
+        List<TrendingSnapshotEntry.Slot> slots = topics(category).stream()
+            .limit(8)
+            .map(topic -> TrendingSnapshotEntry.Slot.builder()
+                .topic(topic)
+                .article(article(topic))
+                .generatedAt(generatedAt)
+                .expiresAt(Instant.now().plus(Duration.ofHours(1)))
+                .build())
+            .toList();
+        return TrendingSnapshotEntry.builder()
+            .id(category + ":" + date)
+            .date(date.toString())
+            .category(category)
+            .slots(slots)
+            .version(version)
+            .build();
+    }
+
+    private List<String> topics(String category) {
+        return ReflectionTestUtils.invokeMethod(service, "getTrendingTopics", category);
+    }
+
+    private static ArticleResponse article(String title) {
+        return ArticleResponse.builder()
+            .title(title)
+            .subtitle("Subtitle")
+            .content("Content of " + title)
+            .build();
+    }
+}